@@ -0,0 +1,217 @@
+import java.util.Arrays;
+
+/**
+ * Critter world that answers every critter's neighbor queries from bitboards. Each species has a plane of one bit
+ * per cell, padded with a guard row above and below the board and a guard column between rows that a wall plane
+ * marks, so the neighbor toward any direction is a fixed bit offset. Once per tick the planes are shifted toward
+ * each direction and intersected a word at a time, 64 cells per operation, into a two-bit WALL/EMPTY/SAME/OTHER
+ * class per cell and direction; a critter's CritterInfoView then reads its four classes with one cache line of
+ * loads and rotates them to its facing through a table, instead of four board lookups.
+ * <p>
+ * Because the classes are computed once per tick, step always takes stepParallel's two phases: every critter
+ * decides against the board as it stood at the start of the tick, and the decisions are then applied in the
+ * shuffled turn order. Matches therefore differ from CritterWorld's step, where each critter sees the moves made
+ * before its turn.
+ */
+public class BitboardWorld extends CritterWorld {
+    // Neighborhood code of each facing and the four classes by Direction ordinal; [facing << 8 | classes]
+    private static final byte[] RELATIVE = new byte[4 << 8];
+
+    static {
+        for (int dir = 0; dir < 4; dir++) {
+            for (int classes = 0; classes < Neighborhood.CODES; classes++) {
+                RELATIVE[dir << 8 | classes] = (byte) (classOf(classes, dir) << Neighborhood.FRONT_SHIFT
+                        | classOf(classes, LEFT_OF[dir]) << Neighborhood.LEFT_SHIFT
+                        | classOf(classes, RIGHT_OF[dir]) << Neighborhood.RIGHT_SHIFT
+                        | classOf(classes, BACK_OF[dir]) << Neighborhood.BACK_SHIFT);
+            }
+        }
+    }
+
+    private final int stride; // Bits per padded row: the board's columns and one guard column
+    private final int words; // Longs per plane
+    private final int[] offsets = new int[4]; // Bit offset of the neighbor toward each Direction ordinal
+    private final long[] walls; // Wall plane shifted toward each direction; [word << 2 | dir]
+    private long[][] planes = new long[0][]; // Occupancy of each species
+    private final long[] classes; // Neighbor class planes, low and high bit per direction; [word << 3 | dir << 1 | bit]
+
+    /**
+     * Creates an empty world
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     */
+    public BitboardWorld(int width, int height, long seed) {
+        super(width, height, seed);
+        stride = width + 1;
+        long bits = (long) (height + 2) * stride;
+        if (bits > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Board is too large for bitboards: " + width + "x" + height);
+        words = (int) ((bits + 63) >>> 6);
+        for (int dir = 0; dir < 4; dir++)
+            offsets[dir] = DX[dir] + DY[dir] * stride;
+
+        long[] wall = new long[words];
+        for (int bit = 0; bit < bits; bit++) {
+            int row = bit / stride;
+            if (row == 0 || row == height + 1 || bit % stride == width)
+                wall[bit >>> 6] |= 1L << bit;
+        }
+        walls = new long[words << 2];
+        for (int word = 0; word < words; word++)
+            for (int dir = 0; dir < 4; dir++)
+                walls[word << 2 | dir] = shifted(wall, word, offsets[dir]);
+        classes = new long[words << 3];
+    }
+
+    /* Bitboard upkeep alongside CritterWorld's board */
+
+    @Override
+    void speciesAdded(int speciesId) {
+        planes = Arrays.copyOf(planes, speciesId + 1);
+        planes[speciesId] = new long[words];
+    }
+
+    @Override
+    void place(int slot, int cell) {
+        super.place(slot, cell);
+        set(planes[speciesOf[slot]], bitOf(cell));
+    }
+
+    @Override
+    void move(int slot, int from, int to) {
+        super.move(slot, from, to);
+        long[] plane = planes[speciesOf[slot]];
+        clear(plane, bitOf(from));
+        set(plane, bitOf(to));
+    }
+
+    @Override
+    void converted(int slot, int from) {
+        int bit = bitOf(cellOf[slot]);
+        clear(planes[from], bit);
+        set(planes[speciesOf[slot]], bit);
+    }
+
+    /**
+     * Advances the world one tick with stepParallel's two phases, deciding on the calling thread; the class planes
+     * only describe the start of a tick
+     */
+    @Override
+    public void step() {
+        stepParallel(null);
+    }
+
+    @Override
+    void snapshot() {
+        classify();
+    }
+
+    /**
+     * Recomputes the class planes: for each direction, a cell's neighbor is occupied if any species plane shifted
+     * toward it has the bit, and the same species if the cell's own plane has it too
+     */
+    private void classify() {
+        for (int word = 0; word < words; word++) {
+            for (int dir = 0; dir < 4; dir++) {
+                long occupied = 0;
+                long same = 0;
+                for (long[] plane : planes) {
+                    long toward = shifted(plane, word, offsets[dir]);
+                    occupied |= toward;
+                    same |= plane[word] & toward;
+                }
+                // WALL 00, EMPTY 01, SAME 10, OTHER 11, as Neighbor ordinals
+                classes[word << 3 | dir << 1] = ~occupied & ~walls[word << 2 | dir] | occupied & ~same;
+                classes[word << 3 | dir << 1 | 1] = occupied;
+            }
+        }
+    }
+
+    /**
+     * Reads a critter's four neighbor classes, computed at the start of the tick, with one cache line of loads
+     * @param slot The critter's slot
+     * @return The Neighborhood code of its neighbors
+     */
+    @Override
+    int neighbors(int slot) {
+        int bit = bitOf(cellOf[slot]);
+        int base = bit >>> 6 << 3;
+        int packed = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            int low = (int) (classes[base | dir << 1] >>> bit) & 1;
+            int high = (int) (classes[base | dir << 1 | 1] >>> bit) & 1;
+            packed |= (high << 1 | low) << 2 * dir;
+        }
+        return RELATIVE[facing[slot] << 8 | packed] & 0xFF;
+    }
+
+    /**
+     * @param cell A cell index, y * width + x
+     * @return Its bit in the padded planes
+     */
+    private int bitOf(int cell) {
+        return cell + cell / width + stride;
+    }
+
+    /**
+     * Reads a word of a plane shifted so that each bit holds the bit offset places after it
+     * @param plane A plane
+     * @param word The word of the result
+     * @param offset The shift in bits, negative toward earlier bits; bits outside the plane read as 0
+     * @return The shifted word
+     */
+    private static long shifted(long[] plane, int word, int offset) {
+        int from = (word << 6) + offset;
+        int index = from >> 6;
+        int bit = from & 63;
+        long low = wordAt(plane, index) >>> bit;
+        return bit == 0 ? low : low | wordAt(plane, index + 1) << 64 - bit;
+    }
+
+    private static long wordAt(long[] plane, int index) {
+        return index < 0 || index >= plane.length ? 0 : plane[index];
+    }
+
+    private static void set(long[] plane, int bit) {
+        plane[bit >>> 6] |= 1L << bit;
+    }
+
+    private static void clear(long[] plane, int bit) {
+        plane[bit >>> 6] &= ~(1L << bit);
+    }
+
+    // The class toward a Direction ordinal in four classes packed by Direction ordinal
+    private static int classOf(int classes, int dir) {
+        return classes >> 2 * dir & 3;
+    }
+
+    /**
+     * Runs a headless EricA vs. FlyTrap match on bitboards and reports populations and throughput
+     * @param args Optional width, height, critters per species, ticks and seed; -Deric.flyweight=true stores EricA
+     *             critters in an EricStore
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int perSpecies = args.length > 2 ? Integer.parseInt(args[2]) : 25;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        BitboardWorld world = new BitboardWorld(width, height, seed);
+        int eric = Boolean.getBoolean("eric.flyweight") ? world.addColony(EricStore::new)
+                : world.addSpecies(EricA::new);
+        int flyTrap = world.addSpecies(FlyTrap::new);
+        world.spawn(eric, perSpecies);
+        world.spawn(flyTrap, perSpecies);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++)
+            world.step();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%dx%d bitboard, %d ticks: EricA %d, FlyTrap %d%n",
+                width, height, ticks, world.population(eric), world.population(flyTrap));
+        System.out.printf("%.0f critter-turns/s%n", (double) ticks * world.count() / seconds);
+    }
+}
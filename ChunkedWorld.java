@@ -0,0 +1,288 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Critter world for boards far larger than their populations. The board is cut into TILE x TILE tiles, and a tile's
+ * array of slots is only allocated while a critter stands in it, so memory follows the area critters occupy rather
+ * than the board's; a tile emptied by the last critter hopping out goes back to a pool of spares.
+ * <p>
+ * Each tile's array carries a halo, a one-cell border copied from the edges of the four neighboring tiles, with WALL
+ * marking cells off the board. step decides each tile's critters in parallel with stepParallel's two phases, and the
+ * task deciding a tile first recopies the sides of its halo whose neighboring tile's edge changed in the last tick,
+ * so a critter's four neighbors are always reads from its own tile's array. As in
+ * BitboardWorld, every critter decides against the board as it stood at the start of the tick, and a match plays out
+ * the same whatever pool steps it.
+ */
+public class ChunkedWorld extends World {
+    public static final int TILE = 64;
+
+    private static final int TILE_SHIFT = 6; // log2(TILE)
+    private static final int PADDED = TILE + 2; // Cells per row of a tile's array, with the halo
+    private static final int WALL = -2; // Halo cells off the board
+
+    private final int tilesX;
+    private final int tilesY;
+    private final int[][] tiles; // Slot or NONE per padded cell of each tile, null while the tile is empty
+    private final int[] tileCounts; // Critters in each tile
+    private final int[] edgeChangedAt; // Tick a cell on each tile's edge last changed, for its neighbors' halos
+    private final int[] offsets = new int[4]; // Padded index offset toward each Direction ordinal
+    private final ArrayDeque<int[]> spares = new ArrayDeque<>(); // Released tile arrays, reused before new ones
+    private int allocated = 0;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an empty world stepped on the common pool
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     */
+    public ChunkedWorld(int width, int height, long seed) {
+        this(width, height, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an empty world
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     * @param pool The pool step decides tiles on, or null to decide on the calling thread
+     */
+    public ChunkedWorld(int width, int height, long seed, ForkJoinPool pool) {
+        super(width, height, seed, 0);
+        this.pool = pool;
+        tilesX = (width + TILE - 1) >> TILE_SHIFT;
+        tilesY = (height + TILE - 1) >> TILE_SHIFT;
+        tiles = new int[tilesX * tilesY][];
+        tileCounts = new int[tiles.length];
+        edgeChangedAt = new int[tiles.length];
+        for (int dir = 0; dir < 4; dir++)
+            offsets[dir] = DX[dir] + DY[dir] * PADDED;
+    }
+
+    /* Board storage */
+
+    @Override
+    int occupant(int cell) {
+        int[] tile = tiles[tileOf(cell)];
+        return tile == null ? NONE : tile[paddedOf(cell)];
+    }
+
+    @Override
+    void place(int slot, int cell) {
+        int index = tileOf(cell);
+        if (tiles[index] == null)
+            tiles[index] = allocate(index);
+        tiles[index][paddedOf(cell)] = slot;
+        tileCounts[index]++;
+        changed(index, cell);
+    }
+
+    @Override
+    void move(int slot, int from, int to) {
+        int fromTile = tileOf(from);
+        tiles[fromTile][paddedOf(from)] = NONE;
+        changed(fromTile, from);
+        place(slot, to);
+        if (--tileCounts[fromTile] == 0) {
+            spares.push(tiles[fromTile]);
+            tiles[fromTile] = null;
+            allocated--;
+        }
+    }
+
+    /**
+     * Stamps a tile's edge as changed this tick if a cell on it changed
+     * @param index The tile
+     * @param cell The cell that changed
+     */
+    private void changed(int index, int cell) {
+        int x = cell % width & TILE - 1;
+        int y = cell / width & TILE - 1;
+        if (x == 0 || y == 0 || x == TILE - 1 || y == TILE - 1)
+            edgeChangedAt[index] = tick;
+    }
+
+    /**
+     * Takes a tile array from the spares or allocates one, with every cell empty, cells off the board as WALL and
+     * its halo copied in full
+     * @param index The tile it is for
+     * @return The array
+     */
+    private int[] allocate(int index) {
+        int[] tile = spares.isEmpty() ? new int[PADDED * PADDED] : spares.pop();
+        Arrays.fill(tile, NONE);
+        int tx = index % tilesX;
+        int ty = index / tilesX;
+        int left = tx << TILE_SHIFT;
+        int top = ty << TILE_SHIFT;
+        for (int y = 0; y < TILE; y++)
+            for (int x = 0; x < TILE; x++)
+                if (left + x >= width || top + y >= height)
+                    tile[(y + 1) * PADDED + x + 1] = WALL;
+        for (int i = 1; i <= TILE; i++) {
+            if (ty == 0)
+                tile[i] = WALL;
+            if (ty == tilesY - 1)
+                tile[(TILE + 1) * PADDED + i] = WALL;
+            if (tx == 0)
+                tile[i * PADDED] = WALL;
+            if (tx == tilesX - 1)
+                tile[i * PADDED + TILE + 1] = WALL;
+        }
+        refresh(index, tile, Integer.MIN_VALUE);
+        allocated++;
+        return tile;
+    }
+
+    /**
+     * Advances the world one tick with stepParallel's two phases, on the pool given at construction
+     */
+    @Override
+    public void step() {
+        stepParallel(pool);
+    }
+
+    /**
+     * Refreshes the halos of the allocated tiles in a deciding task's range. A tile writes only its own halo and
+     * reads only its neighbors' edges, which stay put while critters decide, so tasks never touch each other's writes
+     * @param first The first tile
+     * @param last The tile after the last
+     */
+    @Override
+    void prepare(int first, int last) {
+        for (int index = first; index < last; index++) {
+            int[] tile = tiles[index];
+            if (tile != null)
+                refresh(index, tile, tick - 1);
+        }
+    }
+
+    /**
+     * Recopies the sides of a tile's halo whose neighboring tile's edge changed since a tick; sides off the board
+     * stay WALL
+     * @param index The tile
+     * @param tile Its array
+     * @param since The earliest change to copy
+     */
+    private void refresh(int index, int[] tile, int since) {
+        int tx = index % tilesX;
+        int ty = index / tilesX;
+        if (ty > 0 && edgeChangedAt[index - tilesX] >= since) {
+            int[] north = tiles[index - tilesX];
+            for (int i = 1; i <= TILE; i++)
+                tile[i] = north == null ? NONE : north[TILE * PADDED + i];
+        }
+        if (ty < tilesY - 1 && edgeChangedAt[index + tilesX] >= since) {
+            int[] south = tiles[index + tilesX];
+            for (int i = 1; i <= TILE; i++)
+                tile[(TILE + 1) * PADDED + i] = south == null ? NONE : south[PADDED + i];
+        }
+        if (tx > 0 && edgeChangedAt[index - 1] >= since) {
+            int[] west = tiles[index - 1];
+            for (int i = 1; i <= TILE; i++)
+                tile[i * PADDED] = west == null ? NONE : west[i * PADDED + TILE];
+        }
+        if (tx < tilesX - 1 && edgeChangedAt[index + 1] >= since) {
+            int[] east = tiles[index + 1];
+            for (int i = 1; i <= TILE; i++)
+                tile[i * PADDED + TILE + 1] = east == null ? NONE : east[i * PADDED + 1];
+        }
+    }
+
+    /* Deciding tasks take a tile each */
+
+    @Override
+    int stripes(int target) {
+        return tiles.length;
+    }
+
+    @Override
+    int stripeOf(int cell) {
+        return tileOf(cell);
+    }
+
+    /**
+     * Reads a critter's four neighbors from its tile's array, halo included
+     * @param slot The critter's slot
+     * @return The Neighborhood code of its neighbors
+     */
+    @Override
+    int neighbors(int slot) {
+        int cell = cellOf[slot];
+        int[] tile = tiles[tileOf(cell)];
+        int padded = paddedOf(cell);
+        int dir = facing[slot];
+        int species = speciesOf[slot];
+        return neighbor(tile[padded + offsets[dir]], species) << Neighborhood.FRONT_SHIFT
+                | neighbor(tile[padded + offsets[LEFT_OF[dir]]], species) << Neighborhood.LEFT_SHIFT
+                | neighbor(tile[padded + offsets[RIGHT_OF[dir]]], species) << Neighborhood.RIGHT_SHIFT
+                | neighbor(tile[padded + offsets[BACK_OF[dir]]], species) << Neighborhood.BACK_SHIFT;
+    }
+
+    // Neighbor ordinal of the occupant of a padded cell, seen by a critter of a species
+    private int neighbor(int other, int species) {
+        if (other == WALL)
+            return Critter.Neighbor.WALL.ordinal();
+        if (other == NONE)
+            return Critter.Neighbor.EMPTY.ordinal();
+        return speciesOf[other] == species ? Critter.Neighbor.SAME.ordinal() : Critter.Neighbor.OTHER.ordinal();
+    }
+
+    /**
+     * @param cell A cell index, y * width + x
+     * @return The index of its tile
+     */
+    private int tileOf(int cell) {
+        int x = cell % width;
+        int y = cell / width;
+        return (y >> TILE_SHIFT) * tilesX + (x >> TILE_SHIFT);
+    }
+
+    /**
+     * @param cell A cell index
+     * @return Its index in its tile's padded array
+     */
+    private int paddedOf(int cell) {
+        int x = cell % width & TILE - 1;
+        int y = cell / width & TILE - 1;
+        return (y + 1) * PADDED + x + 1;
+    }
+
+    /**
+     * @return The number of tiles holding at least one critter
+     */
+    public int allocatedTiles() {
+        return allocated;
+    }
+
+    /**
+     * Runs a headless EricA vs. FlyTrap match on a chunked board and reports populations, throughput and how many
+     * tiles were allocated
+     * @param args Optional width, height, critters per species, ticks and seed
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int perSpecies = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        ChunkedWorld world = new ChunkedWorld(width, height, seed);
+        int eric = world.addColony(EricStore::new);
+        int flyTrap = world.addSpecies(FlyTrap::new);
+        world.spawn(eric, perSpecies);
+        world.spawn(flyTrap, perSpecies);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++)
+            world.step();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%dx%d chunked, %d ticks: EricA %d, FlyTrap %d%n",
+                width, height, ticks, world.population(eric), world.population(flyTrap));
+        System.out.printf("%.0f critter-turns/s, %d of %d tiles allocated%n",
+                (double) ticks * world.count() / seconds, world.allocatedTiles(), world.tiles.length);
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Colony-wide signals EricA critters use to coordinate clumping and migration. Each world owns its own instance,
+ * so matches running side by side in one JVM never see each other's signals, and the counters are striped
+ * LongAdders, so critters stepped on many threads update them without contending on a single field.
+ * <p>
+ * Between freeze and thaw, as while a world decides a tick in parallel, every critter reads the signals as they
+ * stood at freeze and sees only its own raises on top; all the changes are summed in at thaw. Sums do not depend
+ * on order, so a frozen tick comes out the same whichever threads the critters were decided on.
+ */
+public final class ColonySignals {
+    // Used wherever no world installs its own, such as the Swing simulator's single match
+    private static final ColonySignals SHARED = new ColonySignals();
+    private static final ThreadLocal<ColonySignals> CURRENT = ThreadLocal.withInitial(() -> SHARED);
+
+    private final LongAdder clump = new LongAdder(); // Drives the switch out of `CLUMP`
+    private final LongAdder migrate = new LongAdder(); // Drives the switch into `MIGRATE`
+
+    /* Values read while frozen; written before and read after the deciding threads are forked and joined */
+
+    private boolean frozen = false;
+    private long frozenClump;
+    private long frozenMigrate;
+
+    /**
+     * Raises the clump signal
+     * @param amount The amount to add
+     * @return The clump signal after the increase
+     */
+    public long bumpClump(int amount) {
+        clump.add(amount);
+        return frozen ? frozenClump + amount : clump.sum();
+    }
+
+    /**
+     * @return The current clump signal
+     */
+    public long clump() {
+        return frozen ? frozenClump : clump.sum();
+    }
+
+    /**
+     * Raises the migrate signal
+     * @param amount The amount to add
+     * @return The migrate signal after the increase
+     */
+    public long bumpMigrate(int amount) {
+        migrate.add(amount);
+        return frozen ? frozenMigrate + amount : migrate.sum();
+    }
+
+    /**
+     * Lowers the migrate signal, stopping at zero
+     * @param amount The amount to subtract
+     */
+    public void inhibitMigrate(int amount) {
+        migrate.add(-amount);
+        if (frozen)
+            return; // thaw stops the sum at zero
+
+        // Give back whatever went below zero; exact when stepped sequentially, and within one
+        // inhibit of zero when other threads are updating the signal at the same time
+        long signal = migrate.sum();
+        if (signal < 0)
+            migrate.add(-signal);
+    }
+
+    /**
+     * @return The current migrate signal
+     */
+    public long migrate() {
+        return frozen ? frozenMigrate : migrate.sum();
+    }
+
+    /**
+     * Holds the signals critters read at their current values until thaw
+     */
+    public void freeze() {
+        frozenClump = clump.sum();
+        frozenMigrate = migrate.sum();
+        frozen = true;
+    }
+
+    /**
+     * Publishes every raise and inhibit made since freeze, stopping the migrate signal at zero
+     */
+    public void thaw() {
+        frozen = false;
+        long signal = migrate.sum();
+        if (signal < 0)
+            migrate.add(-signal);
+    }
+
+    /**
+     * @return The signals critters created on the calling thread join
+     */
+    public static ColonySignals current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Replaces the signals critters created on the calling thread join
+     * @param signals The new signals
+     */
+    public static void install(ColonySignals signals) {
+        CURRENT.set(signals);
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Counter-based CritterRandom: every draw is a SplitMix64 hash of the seed, the tick, the critter taking its turn
+ * and how many draws it has made this turn, with no state carried from one turn to the next. A critter's choices
+ * therefore depend only on who it is and when, not on which critters moved before it or on which thread, so
+ * sequential and parallel stepping and replay verification all see bit-identical draws.
+ */
+public final class CounterRandom extends CritterRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long key; // Hash of seed, tick and critter for the current turn
+    private long counter = 0;
+
+    /**
+     * @param seed The match's seed
+     */
+    public CounterRandom(long seed) {
+        this.seed = seed;
+        this.key = mix(seed);
+    }
+
+    /**
+     * Starts a critter's turn; its draws restart from the first value for this seed, tick and critter
+     * @param tick The tick being stepped
+     * @param critter A stable id of the critter, such as its CritterWorld slot
+     */
+    public void key(int tick, int critter) {
+        key = keyOf(seed, tick, critter);
+        counter = 0;
+        discardBits(); // Leftover bits belong to the previous turn
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(key + GOLDEN_GAMMA * ++counter);
+    }
+
+    /**
+     * Stateless form of nextLong, for checking a recorded draw without stepping a generator
+     * @param seed The match's seed
+     * @param tick The tick
+     * @param critter The critter's id
+     * @param draw Which draw of the turn, from 0
+     * @return The value the draw-th nextLong after key(tick, critter) returns
+     */
+    public static long at(long seed, int tick, int critter, int draw) {
+        return mix(keyOf(seed, tick, critter) + GOLDEN_GAMMA * (draw + 1L));
+    }
+
+    private static long keyOf(long seed, int tick, int critter) {
+        return mix(mix(seed) ^ ((long) tick << 32 | critter & 0xFFFFFFFFL));
+    }
+
+    // SplitMix64's output function
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,30 @@
+import java.awt.Color;
+
+/**
+ * Headless stand-in for simulation.Critter so the critters in this repo compile and run without the Swing simulator.
+ * Mirrors the simulator's surface: the Neighbor/Action/Direction enums and the overridable getMove, getColor and
+ * toString methods
+ */
+public class Critter {
+    public enum Neighbor { WALL, EMPTY, SAME, OTHER }
+    public enum Action { HOP, LEFT, RIGHT, INFECT }
+    public enum Direction { NORTH, SOUTH, EAST, WEST }
+
+    /**
+     * Decides this critter's action for the current turn
+     * @param info info from this critter's turn
+     * @return the Action to take
+     */
+    public Action getMove(CritterInfo info) {
+        return Action.LEFT;
+    }
+
+    public Color getColor() {
+        return Color.BLACK;
+    }
+
+    @Override
+    public String toString() {
+        return "?";
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * A species that stores its critters itself, as int handles into its own arrays, instead of as one Critter object
+ * each. Worlds keep only the handle for such critters and ask the colony for their moves.
+ */
+public interface CritterColony {
+    /**
+     * Creates a critter in its initial state
+     * @return The new critter's handle
+     */
+    int add();
+
+    /**
+     * Releases a critter that was infected by another species; its handle may be returned by a later add
+     * @param handle The critter's handle
+     */
+    void remove(int handle);
+
+    /**
+     * Takes a critter's turn, the flyweight form of Critter.getMove. Worlds that decide a tick in parallel call this
+     * for different handles on several threads at once, but never add or remove at the same time
+     * @param handle The critter's handle
+     * @param info The critter's surroundings this turn
+     * @return The Action it takes
+     */
+    Critter.Action getMove(int handle, CritterInfo info);
+
+    /**
+     * @param handle A critter's handle
+     * @return The critter's state packed into an int, for snapshots and replays, or 0 if the colony has none
+     */
+    default int state(int handle) {
+        return 0;
+    }
+}
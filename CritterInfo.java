@@ -0,0 +1,49 @@
+/**
+ * Headless stand-in for simulation.CritterInfo, the view of its surroundings a critter receives every turn
+ */
+public interface CritterInfo {
+    /**
+     * @return the Neighbor type directly in front of the critter
+     */
+    Critter.Neighbor getFront();
+
+    /**
+     * @return the Neighbor type directly behind the critter
+     */
+    Critter.Neighbor getBack();
+
+    /**
+     * @return the Neighbor type directly to the left of the critter
+     */
+    Critter.Neighbor getLeft();
+
+    /**
+     * @return the Neighbor type directly to the right of the critter
+     */
+    Critter.Neighbor getRight();
+
+    /**
+     * @return the Direction the critter is facing
+     */
+    Critter.Direction getDirection();
+
+    /**
+     * @return the Direction the critter in front is facing, or null if there is no critter there
+     */
+    Critter.Direction getFrontDirection();
+
+    /**
+     * @return the Direction the critter behind is facing, or null if there is no critter there
+     */
+    Critter.Direction getBackDirection();
+
+    /**
+     * @return the Direction the critter to the left is facing, or null if there is no critter there
+     */
+    Critter.Direction getLeftDirection();
+
+    /**
+     * @return the Direction the critter to the right is facing, or null if there is no critter there
+     */
+    Critter.Direction getRightDirection();
+}
@@ -0,0 +1,123 @@
+/**
+ * The one CritterInfo implementation the headless worlds and EricStore hand to critters: a cursor re-pointed at
+ * each critter instead of a new object per getMove. A view over a World reads the critter's neighbors from the
+ * world's primitive storage the first time any of them is asked for, as a Neighborhood code, and its neighbors'
+ * facings the first time one of those is, so every later query is a shift and a mask. A view can also be pointed
+ * at values that are already packed, as EricStore's batch fallbacks are. Being the only implementation keeps the
+ * getMove call sites monomorphic, so the JIT can inline every query.
+ * <p>
+ * A view is not thread-safe; a world keeps one per thread that steps it.
+ */
+public final class CritterInfoView implements CritterInfo {
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+    private static final int UNREAD = -1;
+
+    private final World world; // null for a view over packed values
+    private int slot;
+    private int code = UNREAD; // Neighborhood code, read from the world on demand
+    private int facings = UNREAD; // Own and neighbors' facings in Neighborhood.packFacings layout, read on demand
+
+    /**
+     * Creates a view for pointing at packed values only
+     */
+    public CritterInfoView() {
+        this(null);
+    }
+
+    /**
+     * Creates a view over a world's critters
+     * @param world The world whose storage the view reads
+     */
+    public CritterInfoView(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Re-points the view at a critter of its world; nothing is read until the critter asks
+     * @param slot The critter's slot
+     */
+    public void point(int slot) {
+        this.slot = slot;
+        code = UNREAD;
+        facings = UNREAD;
+    }
+
+    /**
+     * Re-points the view at a critter described by packed values
+     * @param code The critter's neighbors, packed by Neighborhood.pack
+     * @param facings Its own and its neighbors' facings, packed by Neighborhood.packFacings
+     */
+    public void point(int code, int facings) {
+        this.code = code;
+        this.facings = facings;
+    }
+
+    /**
+     * @return The critter's neighbors as a Neighborhood code
+     */
+    public int code() {
+        if (code == UNREAD)
+            code = world.neighbors(slot);
+        return code;
+    }
+
+    /**
+     * @return The critter's own and its neighbors' facings, in Neighborhood.packFacings layout
+     */
+    public int facings() {
+        if (facings == UNREAD)
+            facings = world.neighborFacings(slot);
+        return facings;
+    }
+
+    // Facing of the critter at a position, or null if the position holds no critter
+    private Critter.Direction facingAt(Critter.Neighbor neighbor, int shift) {
+        return neighbor == Critter.Neighbor.WALL || neighbor == Critter.Neighbor.EMPTY ? null
+                : DIRECTIONS[Neighborhood.facingAt(facings(), shift)];
+    }
+
+    @Override
+    public Critter.Neighbor getFront() {
+        return Neighborhood.front(code());
+    }
+
+    @Override
+    public Critter.Neighbor getBack() {
+        return Neighborhood.back(code());
+    }
+
+    @Override
+    public Critter.Neighbor getLeft() {
+        return Neighborhood.left(code());
+    }
+
+    @Override
+    public Critter.Neighbor getRight() {
+        return Neighborhood.right(code());
+    }
+
+    @Override
+    public Critter.Direction getDirection() {
+        return DIRECTIONS[world == null ? Neighborhood.facing(facings) : world.facing[slot]];
+    }
+
+    @Override
+    public Critter.Direction getFrontDirection() {
+        return facingAt(getFront(), 0);
+    }
+
+    @Override
+    public Critter.Direction getBackDirection() {
+        return facingAt(getBack(), 2);
+    }
+
+    @Override
+    public Critter.Direction getLeftDirection() {
+        return facingAt(getLeft(), 3);
+    }
+
+    @Override
+    public Critter.Direction getRightDirection() {
+        return facingAt(getRight(), 1);
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.SplittableRandom;
+
+/**
+ * Source of randomness for critter decisions, in place of Math.random(). Every thread gets its own generator, so
+ * critters stepped on many threads never contend on one shared seed; installing a seeded generator on a thread
+ * makes everything stepped on it reproducible. Coin flips and quarter chances are dealt from a reservoir of bits,
+ * so one nextLong covers dozens of them.
+ */
+public abstract class CritterRandom {
+    private static final SplittableRandom SEEDS = new SplittableRandom();
+    private static final ThreadLocal<CritterRandom> CURRENT = ThreadLocal.withInitial(CritterRandom::unseeded);
+
+    private long reservoir; // Unused random bits, dealt from the low end
+    private int reserved = 0; // How many bits of reservoir are left
+
+    /**
+     * @return 64 uniformly random bits
+     */
+    public abstract long nextLong();
+
+    /**
+     * @return A uniformly random double in [0, 1)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return true or false with equal odds, using a single bit
+     */
+    public boolean nextBoolean() {
+        return nextBits(1) != 0;
+    }
+
+    /**
+     * Deals random bits from the reservoir, refilling it with nextLong when it runs short
+     * @param bits How many bits to draw, 1 through 31
+     * @return A uniformly random value below 2^bits
+     */
+    public int nextBits(int bits) {
+        if (bits < 1 || bits > 31)
+            throw new IllegalArgumentException("bits must be between 1 and 31, got " + bits);
+        if (reserved < bits) {
+            reservoir = nextLong();
+            reserved = Long.SIZE;
+        }
+        int value = (int) (reservoir & (1L << bits) - 1);
+        reservoir >>>= bits;
+        reserved -= bits;
+        return value;
+    }
+
+    /**
+     * Returns true with a probability; exact multiples of a quarter, such as EricParams.DEFAULT's migrateTurn, take
+     * one or two reservoir bits instead of a whole double
+     * @param probability The chance of true, in [0, 1]
+     * @return true with the given probability
+     */
+    public boolean chance(double probability) {
+        double halves = probability * 2;
+        if (halves == (int) halves)
+            return nextBits(1) < (int) halves;
+        double quarters = probability * 4;
+        if (quarters == (int) quarters)
+            return nextBits(2) < (int) quarters;
+        return nextDouble() < probability;
+    }
+
+    /**
+     * Throws away the reservoir, so the next draw of bits starts from a fresh nextLong
+     */
+    protected void discardBits() {
+        reserved = 0;
+    }
+
+    /**
+     * @return The generator critters on the calling thread draw from
+     */
+    public static CritterRandom current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Replaces the generator critters on the calling thread draw from
+     * @param random The new generator
+     */
+    public static void install(CritterRandom random) {
+        CURRENT.set(random);
+    }
+
+    /**
+     * @param seed A seed
+     * @return A SplittableRandom-backed generator that always produces the same sequence for the same seed
+     */
+    public static CritterRandom seeded(long seed) {
+        return new Splittable(new SplittableRandom(seed));
+    }
+
+    private static CritterRandom unseeded() {
+        synchronized (SEEDS) {
+            return new Splittable(SEEDS.split());
+        }
+    }
+
+    private static final class Splittable extends CritterRandom {
+        private final SplittableRandom random;
+
+        private Splittable(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public long nextLong() {
+            return random.nextLong();
+        }
+    }
+}
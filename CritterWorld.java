@@ -0,0 +1,87 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless critter world for running critters at tournament scale without the Swing simulator.
+ * The board is a dense array holding the slot of the critter in every cell, so each neighbor lookup is a single
+ * array read.
+ */
+public class CritterWorld extends World {
+    private final int[] board; // Slot of the critter in each cell, or NONE
+
+    /**
+     * Creates an empty world
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws, which depend only on
+     *             the seed, tick and slot and not on turn order
+     */
+    public CritterWorld(int width, int height, long seed) {
+        this(width, height, seed, 0);
+    }
+
+    /**
+     * Creates an empty world with per-critter storage sized for a population; spawn grows it past that
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     * @param critters The number of critters that will be spawned
+     */
+    public CritterWorld(int width, int height, long seed, int critters) {
+        super(width, height, seed, critters);
+        board = new int[width * height];
+        Arrays.fill(board, NONE);
+    }
+
+    @Override
+    int occupant(int cell) {
+        return board[cell];
+    }
+
+    @Override
+    void place(int slot, int cell) {
+        board[cell] = slot;
+    }
+
+    @Override
+    void move(int slot, int from, int to) {
+        board[from] = NONE;
+        board[to] = slot;
+    }
+
+    /**
+     * Runs a headless EricA vs. FlyTrap match and reports populations and throughput
+     * @param args Optional width, height, critters per species, ticks and seed; -Deric.flyweight=true stores EricA
+     *             critters in an EricStore, and -Deric.parallel=true steps with stepParallel on the common pool
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int perSpecies = args.length > 2 ? Integer.parseInt(args[2]) : 25;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        CritterWorld world = new CritterWorld(width, height, seed);
+        int eric = Boolean.getBoolean("eric.flyweight") ? world.addColony(EricStore::new)
+                : world.addSpecies(EricA::new);
+        int flyTrap = world.addSpecies(FlyTrap::new);
+        world.spawn(eric, perSpecies);
+        world.spawn(flyTrap, perSpecies);
+
+        ForkJoinPool pool = Boolean.getBoolean("eric.parallel") ? ForkJoinPool.commonPool() : null;
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            if (pool != null)
+                world.stepParallel(pool);
+            else
+                world.step();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%dx%d board, %d ticks: EricA %d, FlyTrap %d%n",
+                width, height, ticks, world.population(eric), world.population(flyTrap));
+        System.out.printf("%.0f critter-turns/s%n", (double) ticks * world.count() / seconds);
+        if (EricStats.ENABLED)
+            System.out.print(EricStats.report());
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Table-driven direction algebra for critters; every rotation and turn query is a single array load with no
+ * switches, modulo arithmetic or enum array clones. Shared by any critter in the roster, not just EricA.
+ */
+public final class DirectionTable {
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+
+    // Clockwise position of each simulation.Critter.Direction, from EAST to line up with MoveHelper.GridDirection
+    private static final byte[] CLOCKWISE = new byte[4];
+    private static final Critter.Direction[] AT_CLOCKWISE = new Critter.Direction[4];
+
+    private static final Critter.Direction[] ROTATE = new Critter.Direction[16]; // [dir * 4 + (shift & 3)]
+    private static final byte[] RELATIVE = new byte[16]; // [facing * 4 + target], clockwise quarter turns
+    private static final Critter.Action[] TURN = new Critter.Action[16]; // [facing * 4 + target]
+    private static final Critter.Action[] TURN_BY = new Critter.Action[16]; // [facing * 4 + (shift & 3)]
+
+    static {
+        for (Critter.Direction dir : DIRECTIONS) {
+            int pos = switch (dir) {
+                case EAST -> 0; case SOUTH -> 1; case WEST -> 2; case NORTH -> 3;
+            };
+            CLOCKWISE[dir.ordinal()] = (byte) pos;
+            AT_CLOCKWISE[pos] = dir;
+        }
+
+        for (Critter.Direction facing : DIRECTIONS) {
+            int curr = CLOCKWISE[facing.ordinal()];
+            for (int shift = 0; shift < 4; shift++)
+                ROTATE[facing.ordinal() * 4 + shift] = AT_CLOCKWISE[(curr + shift) & 3];
+
+            for (Critter.Direction target : DIRECTIONS) {
+                int toFace = CLOCKWISE[target.ordinal()];
+                int index = facing.ordinal() * 4 + target.ordinal();
+                RELATIVE[index] = (byte) ((toFace - curr) & 3);
+
+                // Same cost comparison MoveHelper.optimalTurn always used, so about-faces keep their old turn
+                int leftCost = Math.abs(((curr - 1) & 3) - toFace);
+                int rightCost = Math.abs(((curr + 1) & 3) - toFace);
+                TURN[index] = curr == toFace ? Critter.Action.INFECT
+                        : rightCost < leftCost ? Critter.Action.RIGHT : Critter.Action.LEFT;
+            }
+        }
+        for (Critter.Direction facing : DIRECTIONS)
+            for (int shift = 0; shift < 4; shift++)
+                TURN_BY[facing.ordinal() * 4 + shift] = turn(facing, rotate(facing, shift));
+    }
+
+    private DirectionTable() {
+    }
+
+    /**
+     * Returns a direction rotated clockwise by a number of quarter turns
+     * @param dir An initial simulation.Critter.Direction
+     * @param shift Quarter turns clockwise; negative values rotate counterclockwise
+     * @return The rotated simulation.Critter.Direction
+     */
+    public static Critter.Direction rotate(Critter.Direction dir, int shift) {
+        return ROTATE[dir.ordinal() * 4 + (shift & 3)];
+    }
+
+    /**
+     * Returns how far clockwise a direction is from a facing
+     * @param facing The direction a critter faces
+     * @param target The direction of interest
+     * @return 0 for front, 1 for right, 2 for back and 3 for left
+     */
+    public static int relative(Critter.Direction facing, Critter.Direction target) {
+        return RELATIVE[facing.ordinal() * 4 + target.ordinal()];
+    }
+
+    /**
+     * Returns the first action of the shortest turn from one direction to another
+     * @param facing The direction a critter faces
+     * @param target The direction to face
+     * @return LEFT or RIGHT, or INFECT if the critter already faces target
+     */
+    public static Critter.Action turn(Critter.Direction facing, Critter.Direction target) {
+        return TURN[facing.ordinal() * 4 + target.ordinal()];
+    }
+
+    /**
+     * Returns the first action of the shortest turn toward a position relative to a facing
+     * @param facing The direction a critter faces
+     * @param shift Quarter turns clockwise from facing to the position; negative values count counterclockwise
+     * @return LEFT or RIGHT, or INFECT if shift is a whole number of turns
+     */
+    public static Critter.Action turnBy(Critter.Direction facing, int shift) {
+        return TURN_BY[facing.ordinal() * 4 + (shift & 3)];
+    }
+
+    /**
+     * @param dir A simulation.Critter.Direction
+     * @return Its clockwise position, where EAST is 0, SOUTH 1, WEST 2 and NORTH 3
+     */
+    public static int clockwise(Critter.Direction dir) {
+        return CLOCKWISE[dir.ordinal()];
+    }
+
+    /**
+     * @param pos A clockwise position, taken modulo 4
+     * @return The simulation.Critter.Direction at that position
+     */
+    public static Critter.Direction atClockwise(int pos) {
+        return AT_CLOCKWISE[pos & 3];
+    }
+}
@@ -4,7 +4,7 @@ import java.awt.Color;
  * simulation.Critter that optimizes flytrap behavior by making more efficient movement and prioritizing groups of critters
  */
 public class EricA extends Critter {
-    private enum Frame { CLUMP, FIND_OTHERS, GROUP, MIGRATE }
+    enum Frame { CLUMP, FIND_OTHERS, GROUP, MIGRATE }
 
     /* State variables */
 
@@ -15,48 +15,115 @@ public class EricA extends Critter {
 
     private int commitTimer = 0; // Duration of frames that this critter faces the direction of last infection
 
-    private double colScale = COL_SCALE_MAX; // Controls the color flashing
+    private int colPhase = COL_PHASES - 1; // Index into PALETTE, controls the color flashing
     private int colDir = 1;
 
     /* State variables across all critters */
 
-    private static int mSignal = 0; // Controls migration state across all critters
-    private static int cSignal = 0; // Controls migration state across all critters
+    private final ColonySignals colony = ColonySignals.current(); // Clump and migrate signals shared across this world
 
     /* Parameters to tweak behavior */
 
-    private static final int CLUMP_THRESHOLD = 2000; // When `signal` reaches this, migrate critters
-    private static final int CLUMP_SPEED = 1; // When `signal` reaches this, migrate critters
-    private static final int MIGRATE_THRESHOLD = 18000; // When `signal` reaches this, migrate critters
-    private static final int MIGRATE_PROMOTE = 1; // `signal` rate of increase per critter
-    private static final int MIGRATE_INHIBIT = 25; // `signal` rate of decrease per critter in `MIGRATE` state
-    private static final double MIGRATE_TURN = 0.25; // Proportion of frames where migrating critters turn randomly
-    private static final int COMMIT_TIMER_INIT = 6; // How many frames the critter stays facing the last infection
+    private final EricParams params; // Thresholds, signal rates and timers, see EricParams
 
     private static final double COL_SCALE_MAX = 2.75;
     private static final double COL_SCALE_MIN = 0.35;
     private static final double COL_CHANGE_PER_FRAME = 0.10;
     private static final Color INITIAL_COLOR = new Color(110, 75, 245); // Purple!
 
+    // Run getMove through EricDecisionTable instead of the method cascade; enable with -Deric.compiled=true
+    private static final boolean COMPILED = Boolean.getBoolean("eric.compiled");
+    private static final Frame[] FRAMES = Frame.values();
+    private static final Action[] ACTIONS = Action.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Every colScale step from COL_SCALE_MIN to COL_SCALE_MAX, shared by all critters instead of allocated per frame;
+    // at most EricState.MAX_COL_PHASE + 1 so the phase fits a state word
+    static final int COL_PHASES = (int) Math.round((COL_SCALE_MAX - COL_SCALE_MIN) / COL_CHANGE_PER_FRAME) + 1;
+    private static final Color[] PALETTE = new Color[COL_PHASES];
+
+    static {
+        for (int i = 0; i < COL_PHASES; i++) {
+            double colScale = COL_SCALE_MIN + i * COL_CHANGE_PER_FRAME;
+            PALETTE[i] = new Color(
+                    (int) Math.min(255, colScale * INITIAL_COLOR.getRed()),
+                    (int) Math.min(255, colScale * INITIAL_COLOR.getGreen()),
+                    (int) Math.min(255, colScale * INITIAL_COLOR.getBlue()));
+        }
+    }
+
+    public EricA() {
+        this(EricParams.DEFAULT);
+    }
+
+    /**
+     * Creates a critter with its own tuning constants, for parameter searches
+     * @param params The constants governing this critter's behavior
+     */
+    public EricA(EricParams params) {
+        this.params = params;
+    }
+
+    /**
+     * @return This critter's whole state packed into an EricState word
+     */
+    int pack() {
+        return EricState.pack(state.ordinal(), commitDir.ordinal(), migrateDir.ordinal(), commitTimer, colPhase, colDir,
+                justBorn);
+    }
+
+    /**
+     * Takes on a packed state, such as a flyweight critter's, so this object can make that critter's move
+     * @param word An EricState word
+     */
+    void unpack(int word) {
+        state = FRAMES[EricState.frame(word)];
+        commitDir = DIRECTIONS[EricState.commitDir(word)];
+        migrateDir = DIRECTIONS[EricState.migrateDir(word)];
+        commitTimer = EricState.commitTimer(word);
+        colPhase = EricState.colPhase(word);
+        colDir = EricState.colDir(word);
+        justBorn = EricState.justBorn(word);
+    }
+
     @Override
     public Action getMove(CritterInfo info) {
         // Handle style variables
         justBorn = false;
         updateColor();
 
-        Direction closestEnemy = MoveHelper.closestNeighbor(info, Neighbor.OTHER);
+        Frame before = state;
+        int around = Neighborhood.pack(info);
+        Action action = COMPILED ? compiledMove(info, around) : decide(info, around);
+        if (EricStats.ENABLED && state != before)
+            EricStats.transition(before, state);
+        return action;
+    }
+
+    /**
+     * Walks the priority cascade of moves for this turn
+     * @param info info from this critter's turn
+     * @param around this turn's neighbors, packed by Neighborhood.pack
+     * @return the Action to take this turn
+     */
+    private Action decide(CritterInfo info, int around) {
+        int closestEnemy = MoveHelper.closestShift(around, Neighbor.OTHER);
 
         // Always prioritize infecting critters that are directly in front of critter
-        if (info.getFront() == Neighbor.OTHER) {
+        if (Neighborhood.front(around) == Neighbor.OTHER) {
             commitDir = info.getDirection();
-            commitTimer = COMMIT_TIMER_INIT;
+            commitTimer = params.commitTimerInit();
+            if (EricStats.ENABLED)
+                EricStats.branch(EricStats.Branch.FRONT_INFECT);
             return Action.INFECT;
         }
 
         // Run when an enemy is behind this critter
         //
         // This prevents the critter from wasting two movements turning twice and risking being infected
-        if (info.getBack() == Neighbor.OTHER && info.getFront() == Neighbor.EMPTY) {
+        if (Neighborhood.back(around) == Neighbor.OTHER && Neighborhood.front(around) == Neighbor.EMPTY) {
+            if (EricStats.ENABLED)
+                EricStats.branch(EricStats.Branch.BACK_HOP);
             return Action.HOP;
         }
 
@@ -64,8 +131,10 @@ public class EricA extends Critter {
         //
         // Although the odds that this critter can turn and infect in time are low, it allows other
         // nearby critters to turn in the same direction to defend
-        if (closestEnemy != null) {
-            return MoveHelper.optimalTurn(info, closestEnemy);
+        if (closestEnemy != MoveHelper.NO_NEIGHBOR) {
+            if (EricStats.ENABLED)
+                EricStats.branch(EricStats.Branch.ENEMY_TURN);
+            return MoveHelper.optimalTurnBy(info, closestEnemy);
         }
 
         // If no other high priority moves exist, keep facing direction of the last infection
@@ -73,34 +142,82 @@ public class EricA extends Critter {
         // This raises the odds of clusters winning long battles by
         if (commitTimer > 0) {
             commitTimer--;
+            if (EricStats.ENABLED)
+                EricStats.branch(EricStats.Branch.COMMIT_TURN);
             return MoveHelper.optimalTurn(info, commitDir);
         }
 
         // Change detailed behavior based on current state
+        if (EricStats.ENABLED)
+            EricStats.branch(EricStats.FRAME_BRANCHES + state.ordinal());
         return switch (state) {
-            case CLUMP -> clump(info);
-            case FIND_OTHERS -> findOthers(info);
-            case GROUP -> group(info);
-            case MIGRATE -> migrate(info);
+            case CLUMP -> clump(info, around);
+            case FIND_OTHERS -> findOthers(info, around);
+            case GROUP -> group(info, around);
+            case MIGRATE -> migrate(info, around);
         };
     }
 
+    /**
+     * Makes the same decision as decide with a single EricDecisionTable lookup, running decide itself only
+     * for outcomes that depend on a random choice
+     * @param info info from this critter's turn
+     * @param around this turn's neighbors, packed by Neighborhood.pack
+     * @return the Action to take this turn
+     */
+    private Action compiledMove(CritterInfo info, int around) {
+        int entry = EricDecisionTable.lookup(EricDecisionTable.key(around, info.getDirection(), state, commitTimer > 0,
+                colony.clump() + params.clumpSpeed() >= params.clumpThreshold(),
+                colony.migrate() + params.migratePromote() >= params.migrateThreshold()));
+        if ((entry & EricDecisionTable.FALLBACK) != 0)
+            return decide(info, around);
+        if (EricStats.ENABLED)
+            EricStats.branch(entry >> EricDecisionTable.BRANCH_SHIFT & 7);
+
+        if ((entry & EricDecisionTable.SET_COMMIT) != 0) {
+            commitDir = info.getDirection();
+            commitTimer = params.commitTimerInit();
+        }
+        if ((entry & EricDecisionTable.BUMP_CLUMP) != 0)
+            colony.bumpClump(params.clumpSpeed());
+        if ((entry & EricDecisionTable.BUMP_MIGRATE) != 0)
+            colony.bumpMigrate(params.migratePromote());
+        state = FRAMES[entry >> EricDecisionTable.STATE_SHIFT & 3];
+
+        if ((entry & EricDecisionTable.COMMIT_TURN) != 0) {
+            commitTimer--;
+            return MoveHelper.optimalTurn(info, commitDir);
+        }
+        if ((entry & EricDecisionTable.ALIGN_FRIEND) != 0) {
+            int closestFriend = entry >> EricDecisionTable.ALIGN_SHIFT & 3;
+            return MoveHelper.optimalTurn(info, MoveHelper.directionAt(info, closestFriend));
+        }
+        return ACTIONS[entry & EricDecisionTable.ACTION_MASK];
+    }
+
     /**
      * Directs the `CLUMP` state of the critter at the start of the game where critters sweep to the left, allowing
      * the number of friends to build up as the game starts.
      * @return the Action to advance this critter's finding behavior
      */
     public Action clump(CritterInfo info) {
-        if ((cSignal += CLUMP_SPEED) >= CLUMP_THRESHOLD) {
+        return clump(info, Neighborhood.pack(info));
+    }
+
+    /**
+     * clump with this turn's neighbors already packed by Neighborhood.pack
+     */
+    private Action clump(CritterInfo info, int around) {
+        if (colony.bumpClump(params.clumpSpeed()) >= params.clumpThreshold()) {
             state = Frame.FIND_OTHERS;
-            return findOthers(info);
+            return findOthers(info, around);
         }
 
         if (info.getDirection() != Direction.WEST) {
             return MoveHelper.optimalTurn(info, Direction.WEST);
         }
 
-        return info.getFront() == Neighbor.WALL ? Action.RIGHT : Action.HOP;
+        return Neighborhood.front(around) == Neighbor.WALL ? Action.RIGHT : Action.HOP;
     }
 
     /**
@@ -109,14 +226,21 @@ public class EricA extends Critter {
      * @return the Action to advance this critter's finding behavior
      */
     public Action findOthers(CritterInfo info) {
-        Direction closestFriend = MoveHelper.closestNeighbor(info, Neighbor.SAME);
-        if (closestFriend != null) {
+        return findOthers(info, Neighborhood.pack(info));
+    }
+
+    /**
+     * findOthers with this turn's neighbors already packed by Neighborhood.pack
+     */
+    private Action findOthers(CritterInfo info, int around) {
+        int closestFriend = MoveHelper.closestShift(around, Neighbor.SAME);
+        if (closestFriend != MoveHelper.NO_NEIGHBOR) {
             state = Frame.GROUP;
-            return group(info);
+            return group(info, around);
         }
 
         // Continue search otherwise, turning right on walls in a clockwise fashion to sweep corners
-        return info.getFront() == Neighbor.WALL ? Action.RIGHT : Action.HOP;
+        return Neighborhood.front(around) == Neighbor.WALL ? Action.RIGHT : Action.HOP;
     }
 
     /**
@@ -127,29 +251,37 @@ public class EricA extends Critter {
      * @return the Action to advance this critter's grouping behavior
      */
     public Action group(CritterInfo info) {
-        Direction closestFriend = MoveHelper.closestNeighbor(info, Neighbor.SAME);
-        Direction closestEmpty = MoveHelper.closestNeighbor(info, Neighbor.EMPTY);
+        return group(info, Neighborhood.pack(info));
+    }
+
+    /**
+     * group with this turn's neighbors already packed by Neighborhood.pack
+     */
+    private Action group(CritterInfo info, int around) {
+        int closestFriend = MoveHelper.closestShift(around, Neighbor.SAME);
+        int closestEmpty = MoveHelper.closestShift(around, Neighbor.EMPTY);
 
         // Migrate to other group after reaching a certain threshold across all critters
-        if ((mSignal += MIGRATE_PROMOTE) >= MIGRATE_THRESHOLD && closestEmpty != null) {
+        if (colony.bumpMigrate(params.migratePromote()) >= params.migrateThreshold()
+                && closestEmpty != MoveHelper.NO_NEIGHBOR) {
             state = Frame.MIGRATE;
-            migrateDir = MoveHelper.toCardinal(MoveHelper.shiftDir(MoveHelper.toGrid(migrateDir), 1));
-            return migrate(info);
+            migrateDir = DirectionTable.rotate(migrateDir, 1);
+            return migrate(info, around);
         }
 
         // Revert to searching if no friends surround the critter
-        if (closestFriend == null) {
+        if (closestFriend == MoveHelper.NO_NEIGHBOR) {
             state = Frame.FIND_OTHERS;
             return Action.HOP;
         }
 
         // Create barrier facing vulnerable space
-        if (closestEmpty != null) {
-            return MoveHelper.optimalTurn(info, closestEmpty);
+        if (closestEmpty != MoveHelper.NO_NEIGHBOR) {
+            return MoveHelper.optimalTurnBy(info, closestEmpty);
         }
 
         // Face direction of friends to create defensive walls
-        return MoveHelper.optimalTurn(info, MoveHelper.directionOf(info, closestFriend));
+        return MoveHelper.optimalTurn(info, MoveHelper.directionAt(info, closestFriend));
     }
 
     /**
@@ -160,58 +292,64 @@ public class EricA extends Critter {
      * @return the Action to advance this critter's migration behavior
      */
     public Action migrate(CritterInfo info) {
-        Direction closestFriend = MoveHelper.closestNeighbor(info, Neighbor.SAME);
+        return migrate(info, Neighborhood.pack(info));
+    }
+
+    /**
+     * migrate with this turn's neighbors already packed by Neighborhood.pack
+     */
+    private Action migrate(CritterInfo info, int around) {
+        int closestFriend = MoveHelper.closestShift(around, Neighbor.SAME);
 
         // Decrease migration rate of other critters
-        mSignal = Math.max(mSignal - MIGRATE_INHIBIT, 0);
+        colony.inhibitMigrate(params.migrateInhibit());
 
         // Randomly turn left and right to create more varied migration patterns
         //
         // A jagged migration allows critters to reach new locations on the map rather than get stuck in front of
         // large clumps of enemies
-        if (Math.random() <= MIGRATE_TURN) {
-            migrateDir = MoveHelper.toCardinal(MoveHelper.shiftDir(MoveHelper.toGrid(migrateDir), Math.random() < 0.5 ? 1 : -1));
+        CritterRandom random = CritterRandom.current();
+        if (random.chance(params.migrateTurn())) {
+            migrateDir = DirectionTable.rotate(migrateDir, random.nextBoolean() ? 1 : -1);
         }
 
         // Move migration if a wall is in the way
-        if (info.getFront() == Neighbor.WALL) {
-            migrateDir = MoveHelper.toCardinal(MoveHelper.shiftDir(MoveHelper.toGrid(migrateDir), 1));
+        if (Neighborhood.front(around) == Neighbor.WALL) {
+            migrateDir = DirectionTable.rotate(migrateDir, 1);
         }
 
         // Keep hopping in the migration direction until a group is reached
         if (info.getDirection() != migrateDir) {
             return MoveHelper.optimalTurn(info, migrateDir);
         }
-        if (info.getFront() == Neighbor.EMPTY) {
+        if (Neighborhood.front(around) == Neighbor.EMPTY) {
             return Action.HOP;
         }
 
         // Attach to a new group
-        if (closestFriend != null) {
+        if (closestFriend != MoveHelper.NO_NEIGHBOR) {
             state = Frame.GROUP;
-            return MoveHelper.optimalTurn(info, MoveHelper.directionOf(info, closestFriend));
+            return MoveHelper.optimalTurn(info, MoveHelper.directionAt(info, closestFriend));
         }
 
         return Action.HOP;
     }
 
     /**
-     * Updates the gradient of this critter by oscillating a multiplier for initColor from
-     * COL_SCALE_MIN to COL_SCALE_MAX
+     * Updates the gradient of this critter by oscillating its PALETTE phase, and so the multiplier for initColor,
+     * from COL_SCALE_MIN to COL_SCALE_MAX
      */
     private void updateColor() {
-        colScale += colDir * COL_CHANGE_PER_FRAME;
-        if (COL_SCALE_MIN > colScale || colScale > COL_SCALE_MAX)
-            colDir *= -1;
-        colScale = Math.min(COL_SCALE_MAX, Math.max(COL_SCALE_MIN, colScale));
+        colPhase += colDir;
+        if (colPhase <= 0 || colPhase >= COL_PHASES - 1) {
+            colDir = colPhase <= 0 ? 1 : -1;
+            colPhase = colPhase <= 0 ? 0 : COL_PHASES - 1;
+        }
     }
 
     @Override
     public Color getColor() {
-        return justBorn ? Color.WHITE : new Color(
-                (int) Math.min(255, colScale * INITIAL_COLOR.getRed()),
-                (int) Math.min(255, colScale * INITIAL_COLOR.getGreen()),
-                (int) Math.min(255, colScale * INITIAL_COLOR.getBlue()));
+        return justBorn ? Color.WHITE : PALETTE[colPhase];
     }
 
     @Override
@@ -236,16 +374,17 @@ class MoveHelper {
      */
     public enum GridDirection { RIGHT, DOWN, LEFT, UP }
 
+    private static final GridDirection[] GRID_DIRECTIONS = GridDirection.values(); // Indexed by clockwise position
+
+    public static final int NO_NEIGHBOR = Neighborhood.NONE; // closestShift result when no neighbor matches
+
     /**
      * Converts simulation.Critter.Direction to GridDirection
      * @param dir A simulation.Critter/Cardinal Direction
      * @return The corresponding GridDirection
      */
     public static GridDirection toGrid(Critter.Direction dir) {
-        return switch (dir) {
-            case NORTH -> GridDirection.UP; case EAST -> GridDirection.RIGHT;
-            case SOUTH -> GridDirection.DOWN; case WEST -> GridDirection.LEFT;
-        };
+        return GRID_DIRECTIONS[DirectionTable.clockwise(dir)];
     }
 
     /**
@@ -254,10 +393,7 @@ class MoveHelper {
      * @return The corresponding simulation.Critter/Cardinal Direction
      */
     public static Critter.Direction toCardinal(GridDirection dir) {
-        return switch (dir) {
-            case UP -> Critter.Direction.NORTH; case LEFT -> Critter.Direction.WEST;
-            case DOWN -> Critter.Direction.SOUTH; case RIGHT -> Critter.Direction.EAST;
-        };
+        return DirectionTable.atClockwise(dir.ordinal());
     }
 
     /**
@@ -267,9 +403,7 @@ class MoveHelper {
      * @return The shifted GridDirection
      */
     public static GridDirection shiftDir(GridDirection dir, int shift) {
-        if ((dir.ordinal() + shift) % 4 < 0)
-            return GridDirection.values()[3 + ((dir.ordinal() + shift) % 4)];
-        return GridDirection.values()[(dir.ordinal() + shift) % 4];
+        return GRID_DIRECTIONS[(dir.ordinal() + shift) & 3];
     }
 
     /**
@@ -279,16 +413,7 @@ class MoveHelper {
      * @return The simulation.Critter.Action to take in order to face toFaceCardinal
      */
     public static Critter.Action optimalTurn(CritterInfo info, Critter.Direction toFaceCardinal) {
-        Critter.Direction currCardinal = info.getDirection();
-        if (currCardinal == toFaceCardinal)
-            return Critter.Action.INFECT;
-
-        GridDirection curr = toGrid(currCardinal);
-        GridDirection toFace = toGrid(toFaceCardinal);
-
-        int leftCost = Math.abs(shiftDir(curr, -1).ordinal() - toFace.ordinal());
-        int rightCost = Math.abs(shiftDir(curr, 1).ordinal() - toFace.ordinal());
-        return rightCost < leftCost ? Critter.Action.RIGHT : Critter.Action.LEFT;
+        return DirectionTable.turn(info.getDirection(), toFaceCardinal);
     }
 
     /**
@@ -298,18 +423,42 @@ class MoveHelper {
      * @return The simulation.Critter.Direction of the closest neighbor of the given type
      */
     public static Critter.Direction closestNeighbor(CritterInfo info, Critter.Neighbor neighbor) {
-        Integer shift = null;
-        if (info.getFront() == neighbor)
-            shift = 0;
-        else if (info.getLeft() == info.getRight() && info.getLeft() == neighbor)
-            shift = Math.random() > 0.5 ? 1 : -1; // randomly select equally close neighbors
-        else if (info.getLeft() == neighbor)
-            shift = -1;
-        else if (info.getRight() == neighbor)
-            shift = 1;
-        else if (info.getBack() == neighbor)
-            shift = 2;
-        return shift == null ? null : toCardinal(shiftDir(toGrid(info.getDirection()), shift));
+        int shift = closestShift(info, neighbor);
+        return shift == NO_NEIGHBOR ? null : DirectionTable.rotate(info.getDirection(), shift);
+    }
+
+    /**
+     * Primitive closestNeighbor: returns where the closest occurrence of a certain neighbor type is, relative to
+     * the critter's facing, without boxing or null
+     * @param info A current simulation.CritterInfo
+     * @param neighbor The simulation.Critter.Neighbor type to locate
+     * @return Quarter turns clockwise to the neighbor (0 front, 1 right, 2 back, 3 left), or NO_NEIGHBOR
+     */
+    public static int closestShift(CritterInfo info, Critter.Neighbor neighbor) {
+        return closestShift(Neighborhood.pack(info), neighbor);
+    }
+
+    /**
+     * Primitive closestNeighbor over neighbors already packed by Neighborhood.pack
+     * @param code A packed neighborhood code
+     * @param neighbor The simulation.Critter.Neighbor type to locate
+     * @return Quarter turns clockwise to the neighbor (0 front, 1 right, 2 back, 3 left), or NO_NEIGHBOR
+     */
+    public static int closestShift(int code, Critter.Neighbor neighbor) {
+        int shift = Neighborhood.closestShift(code, neighbor);
+        if (shift == Neighborhood.TIE)
+            return CritterRandom.current().nextBoolean() ? 1 : 3; // randomly select equally close neighbors
+        return shift;
+    }
+
+    /**
+     * Returns the turn from simulation.Critter.Action toward a position relative to the critter's facing
+     * @param info A current simulation.CritterInfo
+     * @param shift Quarter turns clockwise to the position, such as a closestShift result
+     * @return The simulation.Critter.Action to take in order to face that position
+     */
+    public static Critter.Action optimalTurnBy(CritterInfo info, int shift) {
+        return DirectionTable.turnBy(info.getDirection(), shift);
     }
 
     /**
@@ -319,8 +468,21 @@ class MoveHelper {
      * @return The simulation.Critter.Direction of the simulation.Critter at cardinalTargetDir
      */
     public static Critter.Direction directionOf(CritterInfo info, Critter.Direction cardinalTargetDir) {
-        return switch (toGrid(cardinalTargetDir).ordinal() - toGrid(info.getDirection()).ordinal()) {
-            case 1 -> info.getRightDirection(); case -1 -> info.getLeftDirection();
+        return switch (DirectionTable.relative(info.getDirection(), cardinalTargetDir)) {
+            case 1 -> info.getRightDirection(); case 3 -> info.getLeftDirection();
+            case 0 -> info.getFrontDirection(); default -> info.getBackDirection();
+        };
+    }
+
+    /**
+     * Returns the simulation.Critter.Direction of the simulation.Critter at a position relative to this one
+     * @param info A current simulation.CritterInfo
+     * @param shift Quarter turns clockwise to the position, such as a closestShift result
+     * @return The simulation.Critter.Direction of the simulation.Critter at that position
+     */
+    public static Critter.Direction directionAt(CritterInfo info, int shift) {
+        return switch (shift & 3) {
+            case 1 -> info.getRightDirection(); case 3 -> info.getLeftDirection();
             case 0 -> info.getFrontDirection(); default -> info.getBackDirection();
         };
     }
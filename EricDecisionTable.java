@@ -0,0 +1,181 @@
+/**
+ * EricA's getMove priority cascade precompiled into a flat table. A packed key of everything the deterministic
+ * part of the cascade reads (the four neighbor types, facing, state, whether the commit timer is running and
+ * whether this turn's signal bump crosses a threshold) maps to the resulting Action plus the state updates EricA
+ * must apply. Keys whose outcome depends on a random choice are marked FALLBACK and run the original methods.
+ */
+final class EricDecisionTable {
+    /* Entry layout */
+
+    static final int ACTION_MASK = 0x3; // simulation.Critter.Action ordinal
+    static final int STATE_SHIFT = 2; // Next EricA.Frame ordinal
+    static final int FALLBACK = 1 << 4; // Outcome is random; run the original cascade instead
+    static final int SET_COMMIT = 1 << 5; // Commit to the current facing for EricParams.commitTimerInit frames
+    static final int COMMIT_TURN = 1 << 6; // Tick the commit timer down and turn toward commitDir
+    static final int BUMP_CLUMP = 1 << 7; // Add EricParams.clumpSpeed to the clump signal
+    static final int BUMP_MIGRATE = 1 << 8; // Add EricParams.migratePromote to the migrate signal
+    static final int ALIGN_FRIEND = 1 << 9; // Turn toward the facing of the friend at ALIGN_SHIFT
+    static final int ALIGN_SHIFT = 10; // Clockwise quarter turns from facing to that friend
+    static final int BRANCH_SHIFT = 12; // EricStats.Branch ordinal of the deciding branch
+
+    /* Key layout, from low to high bits */
+
+    private static final int FACING_SHIFT = 8; // Below this is the Neighborhood code
+    private static final int KEY_STATE_SHIFT = 10;
+    private static final int COMMIT_ACTIVE = 1 << 12;
+    private static final int CLUMP_READY = 1 << 13;
+    private static final int MIGRATE_READY = 1 << 14;
+    private static final int KEYS = 1 << 15;
+
+    private static final int WALL = Critter.Neighbor.WALL.ordinal();
+    private static final int EMPTY = Critter.Neighbor.EMPTY.ordinal();
+    private static final int SAME = Critter.Neighbor.SAME.ordinal();
+    private static final int OTHER = Critter.Neighbor.OTHER.ordinal();
+    private static final int NONE = -1;
+    private static final int TIE = -2;
+
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+    private static final EricA.Frame[] FRAMES = EricA.Frame.values();
+
+    private static final short[] TABLE = new short[KEYS];
+
+    static {
+        for (int key = 0; key < KEYS; key++)
+            TABLE[key] = (short) (compile(key) | branch(key) << BRANCH_SHIFT);
+    }
+
+    private EricDecisionTable() {
+    }
+
+    /**
+     * Packs the inputs of the deterministic cascade into a table key
+     * @param around The critter's neighbors, packed by Neighborhood.pack
+     * @param facing The direction the critter faces
+     * @param state The critter's current Frame
+     * @param commitActive Whether the critter's commit timer is running
+     * @param clumpReady Whether bumping the clump signal this turn reaches EricParams.clumpThreshold
+     * @param migrateReady Whether bumping the migrate signal this turn reaches EricParams.migrateThreshold
+     * @return The key to pass to lookup
+     */
+    static int key(int around, Critter.Direction facing, EricA.Frame state, boolean commitActive,
+                   boolean clumpReady, boolean migrateReady) {
+        return around
+                | facing.ordinal() << FACING_SHIFT
+                | state.ordinal() << KEY_STATE_SHIFT
+                | (commitActive ? COMMIT_ACTIVE : 0)
+                | (clumpReady ? CLUMP_READY : 0)
+                | (migrateReady ? MIGRATE_READY : 0);
+    }
+
+    /**
+     * @param key A key from key
+     * @return The compiled entry, a combination of the flags and fields above
+     */
+    static int lookup(int key) {
+        return TABLE[key];
+    }
+
+    /**
+     * Evaluates the cascade of EricA.getMove, clump, findOthers, group and migrate for one key
+     * @param key A packed key
+     * @return The entry for that key
+     */
+    private static int compile(int key) {
+        int[] around = { key & 3, key >> 4 & 3, key >> 6 & 3, key >> 2 & 3 }; // Neighbor ordinals, clockwise from front
+        int front = around[0];
+        Critter.Direction facing = DIRECTIONS[key >> FACING_SHIFT & 3];
+        EricA.Frame state = FRAMES[key >> KEY_STATE_SHIFT & 3];
+
+        if (front == OTHER)
+            return entry(Critter.Action.INFECT, state) | SET_COMMIT;
+        if (around[2] == OTHER && front == EMPTY)
+            return entry(Critter.Action.HOP, state);
+
+        int closestEnemy = closest(around, OTHER);
+        if (closestEnemy == TIE)
+            return FALLBACK;
+        if (closestEnemy != NONE)
+            return entry(DirectionTable.turn(facing, DirectionTable.rotate(facing, closestEnemy)), state);
+
+        if ((key & COMMIT_ACTIVE) != 0)
+            return entry(Critter.Action.INFECT, state) | COMMIT_TURN;
+
+        int flags = 0;
+        if (state == EricA.Frame.CLUMP) {
+            flags |= BUMP_CLUMP;
+            if ((key & CLUMP_READY) == 0) {
+                if (facing != Critter.Direction.WEST)
+                    return entry(DirectionTable.turn(facing, Critter.Direction.WEST), state) | flags;
+                return entry(front == WALL ? Critter.Action.RIGHT : Critter.Action.HOP, state) | flags;
+            }
+            state = EricA.Frame.FIND_OTHERS;
+        }
+
+        int closestFriend = closest(around, SAME);
+        if (state == EricA.Frame.FIND_OTHERS) {
+            if (closestFriend == NONE)
+                return entry(front == WALL ? Critter.Action.RIGHT : Critter.Action.HOP, state) | flags;
+            state = EricA.Frame.GROUP;
+        }
+
+        if (state == EricA.Frame.GROUP) {
+            flags |= BUMP_MIGRATE;
+            int closestEmpty = closest(around, EMPTY);
+            if ((key & MIGRATE_READY) != 0 && closestEmpty != NONE)
+                return FALLBACK; // Migration turns randomly
+            if (closestFriend == NONE)
+                return entry(Critter.Action.HOP, EricA.Frame.FIND_OTHERS) | flags;
+            if (closestEmpty == TIE)
+                return FALLBACK;
+            if (closestEmpty != NONE)
+                return entry(DirectionTable.turn(facing, DirectionTable.rotate(facing, closestEmpty)), state) | flags;
+            if (closestFriend == TIE)
+                return FALLBACK;
+            return entry(Critter.Action.INFECT, state) | flags | ALIGN_FRIEND | closestFriend << ALIGN_SHIFT;
+        }
+
+        return FALLBACK; // Migration turns randomly
+    }
+
+    /**
+     * Finds which branch of the cascade decides a key, for EricStats
+     * @param key A packed key
+     * @return The EricStats.Branch ordinal
+     */
+    private static int branch(int key) {
+        int[] around = { key & 3, key >> 4 & 3, key >> 6 & 3, key >> 2 & 3 };
+        if (around[0] == OTHER)
+            return EricStats.Branch.FRONT_INFECT.ordinal();
+        if (around[2] == OTHER && around[0] == EMPTY)
+            return EricStats.Branch.BACK_HOP.ordinal();
+        if (closest(around, OTHER) != NONE)
+            return EricStats.Branch.ENEMY_TURN.ordinal();
+        if ((key & COMMIT_ACTIVE) != 0)
+            return EricStats.Branch.COMMIT_TURN.ordinal();
+        return EricStats.FRAME_BRANCHES + (key >> KEY_STATE_SHIFT & 3);
+    }
+
+    /**
+     * Mirrors MoveHelper.closestNeighbor over unpacked Neighbor ordinals
+     * @param around Neighbor ordinals, clockwise from front
+     * @param neighbor The Neighbor ordinal to locate
+     * @return Clockwise quarter turns to the closest match, NONE, or TIE when left and right match equally
+     */
+    private static int closest(int[] around, int neighbor) {
+        if (around[0] == neighbor)
+            return 0;
+        if (around[3] == around[1] && around[3] == neighbor)
+            return TIE;
+        if (around[3] == neighbor)
+            return 3;
+        if (around[1] == neighbor)
+            return 1;
+        if (around[2] == neighbor)
+            return 2;
+        return NONE;
+    }
+
+    private static int entry(Critter.Action action, EricA.Frame state) {
+        return action.ordinal() | state.ordinal() << STATE_SHIFT;
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Tuning constants that govern EricA's behavior, pulled out of the critter so they can be searched over
+ * @param clumpThreshold When the clump signal reaches this, critters leave `CLUMP`
+ * @param clumpSpeed Clump signal rate of increase per critter in `CLUMP` state
+ * @param migrateThreshold When the migrate signal reaches this, migrate critters
+ * @param migratePromote Migrate signal rate of increase per critter in `GROUP` state
+ * @param migrateInhibit Migrate signal rate of decrease per critter in `MIGRATE` state
+ * @param migrateTurn Proportion of frames where migrating critters turn randomly
+ * @param commitTimerInit How many frames the critter stays facing the last infection, at most
+ *                        EricState.MAX_COMMIT_TIMER so the timer fits a state word
+ */
+public record EricParams(int clumpThreshold, int clumpSpeed, int migrateThreshold, int migratePromote,
+                         int migrateInhibit, double migrateTurn, int commitTimerInit) {
+    /**
+     * The hand-tuned values EricA has always used
+     */
+    public static final EricParams DEFAULT = new EricParams(2000, 1, 18000, 1, 25, 0.25, 6);
+
+    public EricParams {
+        if (clumpThreshold < 0 || migrateThreshold < 0)
+            throw new IllegalArgumentException("Thresholds must not be negative");
+        if (clumpSpeed <= 0 || migratePromote <= 0)
+            throw new IllegalArgumentException("clumpSpeed and migratePromote must be positive");
+        if (migrateInhibit < 0)
+            throw new IllegalArgumentException("migrateInhibit must not be negative, got " + migrateInhibit);
+        if (!(migrateTurn >= 0 && migrateTurn <= 1))
+            throw new IllegalArgumentException("migrateTurn must be a proportion, got " + migrateTurn);
+        if (commitTimerInit < 0 || commitTimerInit > EricState.MAX_COMMIT_TIMER)
+            throw new IllegalArgumentException("commitTimerInit must be between 0 and " + EricState.MAX_COMMIT_TIMER
+                    + ", got " + commitTimerInit);
+    }
+}
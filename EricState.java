@@ -0,0 +1,86 @@
+/**
+ * Codec for everything an EricA remembers between turns packed into the low 16 bits of an int: Frame, commit and
+ * migrate directions, commit timer, PALETTE phase and direction, and whether it is newborn. EricA.pack and
+ * EricA.unpack convert the object form, and EricStore, snapshots and replays keep the word itself.
+ */
+final class EricState {
+    /* Word layout, from low to high bits */
+
+    private static final int FRAME_SHIFT = 0; // EricA.Frame ordinal, 2 bits
+    private static final int COMMIT_DIR_SHIFT = 2; // simulation.Critter.Direction ordinal, 2 bits
+    private static final int MIGRATE_DIR_SHIFT = 4; // simulation.Critter.Direction ordinal, 2 bits
+    private static final int COMMIT_TIMER_SHIFT = 6; // 3 bits
+    private static final int COL_PHASE_SHIFT = 9; // 5 bits
+    private static final int COL_FALLING = 1 << 14; // Color phase is counting down
+    private static final int COLOR_BITS = 0x3F << COL_PHASE_SHIFT; // Phase and direction
+    private static final int JUST_BORN = 1 << 15;
+
+    static final int BITS = 16;
+    static final int MAX_COMMIT_TIMER = 7;
+    static final int MAX_COL_PHASE = 31;
+
+    private EricState() {
+    }
+
+    /**
+     * @param frame EricA.Frame ordinal
+     * @param commitDir simulation.Critter.Direction ordinal of the last infection
+     * @param migrateDir simulation.Critter.Direction ordinal to migrate in
+     * @param commitTimer Remaining commit frames, 0 through MAX_COMMIT_TIMER
+     * @param colPhase PALETTE index, 0 through MAX_COL_PHASE
+     * @param colDir 1 or -1, the step colPhase takes next frame
+     * @param justBorn Whether the critter has not moved yet
+     * @return The packed state word
+     */
+    static int pack(int frame, int commitDir, int migrateDir, int commitTimer, int colPhase, int colDir,
+                    boolean justBorn) {
+        return frame << FRAME_SHIFT
+                | commitDir << COMMIT_DIR_SHIFT
+                | migrateDir << MIGRATE_DIR_SHIFT
+                | commitTimer << COMMIT_TIMER_SHIFT
+                | colPhase << COL_PHASE_SHIFT
+                | (colDir < 0 ? COL_FALLING : 0)
+                | (justBorn ? JUST_BORN : 0);
+    }
+
+    static int frame(int word) {
+        return word >> FRAME_SHIFT & 3;
+    }
+
+    static int commitDir(int word) {
+        return word >> COMMIT_DIR_SHIFT & 3;
+    }
+
+    static int migrateDir(int word) {
+        return word >> MIGRATE_DIR_SHIFT & 3;
+    }
+
+    static int commitTimer(int word) {
+        return word >> COMMIT_TIMER_SHIFT & MAX_COMMIT_TIMER;
+    }
+
+    static int colPhase(int word) {
+        return word >> COL_PHASE_SHIFT & MAX_COL_PHASE;
+    }
+
+    /**
+     * @param word A packed state word
+     * @return 1 or -1, the step the color phase takes next frame
+     */
+    static int colDir(int word) {
+        return (word & COL_FALLING) != 0 ? -1 : 1;
+    }
+
+    static boolean justBorn(int word) {
+        return (word & JUST_BORN) != 0;
+    }
+
+    /**
+     * Drops the color oscillation, which steps every turn and only depends on how many turns the critter has taken
+     * @param word A packed state word
+     * @return The word with the PALETTE phase and direction cleared
+     */
+    static int behavior(int word) {
+        return word & ~COLOR_BITS;
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counters of which getMove branch EricA takes and which Frame transitions it makes. Each thread counts into its
+ * own array and the arrays are only summed when a snapshot is taken, so counting never contends. Enable with
+ * -Deric.stats=true; when off, ENABLED is a constant false and the JIT removes every counting call.
+ */
+final class EricStats {
+    static final boolean ENABLED = Boolean.getBoolean("eric.stats");
+
+    /**
+     * The branch of the getMove cascade that decided a turn; the Frame branches count turns that reached the
+     * state switch, by the state the turn started in
+     */
+    enum Branch { FRONT_INFECT, BACK_HOP, ENEMY_TURN, COMMIT_TURN, CLUMP, FIND_OTHERS, GROUP, MIGRATE }
+
+    static final int FRAME_BRANCHES = Branch.CLUMP.ordinal(); // The Frame branches follow in Frame order
+
+    private static final Branch[] BRANCHES = Branch.values();
+    private static final EricA.Frame[] FRAMES = EricA.Frame.values();
+    private static final int TRANSITIONS = BRANCHES.length; // Offset of the Frame x Frame transition counters
+    private static final int COUNTERS = TRANSITIONS + FRAMES.length * FRAMES.length;
+
+    private static final Set<long[]> ALL = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<long[]> LOCAL = ThreadLocal.withInitial(() -> {
+        long[] counters = new long[COUNTERS];
+        ALL.add(counters);
+        return counters;
+    });
+
+    private EricStats() {
+    }
+
+    /**
+     * Counts a turn decided by a branch
+     * @param branch The Branch ordinal
+     */
+    static void branch(int branch) {
+        LOCAL.get()[branch]++;
+    }
+
+    /**
+     * Counts a turn decided by a branch
+     * @param branch The Branch
+     */
+    static void branch(Branch branch) {
+        branch(branch.ordinal());
+    }
+
+    /**
+     * Counts a turn that started in one Frame and ended in another
+     * @param from The Frame at the start of the turn
+     * @param to The Frame at the end of the turn
+     */
+    static void transition(EricA.Frame from, EricA.Frame to) {
+        LOCAL.get()[TRANSITIONS + from.ordinal() * FRAMES.length + to.ordinal()]++;
+    }
+
+    /**
+     * Sums every thread's counters; exact once the counting threads have finished or been joined
+     * @return Branch counts followed by Frame x Frame transition counts
+     */
+    static long[] snapshot() {
+        long[] total = new long[COUNTERS];
+        for (long[] counters : ALL)
+            for (int i = 0; i < COUNTERS; i++)
+                total[i] += counters[i];
+        return total;
+    }
+
+    /**
+     * Zeroes every thread's counters; only meaningful while no critters are being stepped
+     */
+    static void reset() {
+        for (long[] counters : ALL)
+            Arrays.fill(counters, 0);
+    }
+
+    /**
+     * @return A table of branch shares and transition counts from a fresh snapshot
+     */
+    static String report() {
+        long[] total = snapshot();
+        long turns = 0;
+        for (int i = 0; i < TRANSITIONS; i++)
+            turns += total[i];
+
+        StringBuilder out = new StringBuilder(String.format("EricA decisions over %d turns%n", turns));
+        for (Branch branch : BRANCHES)
+            out.append(String.format("  %-12s %12d  %5.1f%%%n", branch, total[branch.ordinal()],
+                    turns == 0 ? 0 : 100.0 * total[branch.ordinal()] / turns));
+        for (EricA.Frame from : FRAMES)
+            for (EricA.Frame to : FRAMES) {
+                long count = total[TRANSITIONS + from.ordinal() * FRAMES.length + to.ordinal()];
+                if (count > 0)
+                    out.append(String.format("  %s -> %s %d%n", from, to, count));
+            }
+        return out.toString();
+    }
+}
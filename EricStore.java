@@ -0,0 +1,223 @@
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Flyweight storage for a colony of EricA critters. Every critter's state is an EricState word in an int array
+ * indexed by its handle rather than an object of its own, and an EricA worker unpacks and repacks the word around
+ * each turn, so the whole colony costs four bytes per critter and no object headers. Each thread gets its own
+ * worker, so getMove can run for different critters on many threads at once; getMoves takes one batch at a time.
+ * <p>
+ * Worlds only call getMove. The batch path, getMoves and ThreatKernel, is reached only from EricStoreBenchmark and
+ * ThreatKernelBenchmark: a world has to read every critter's neighbors into its packed inputs first, and in
+ * World.decideAll that cost more than the table saved, stepping matches 15 to 65% slower than getMove does.
+ */
+public final class EricStore implements CritterColony {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+    private static final EricA.Frame[] FRAMES = EricA.Frame.values();
+
+    private final ThreadLocal<EricA> workers; // Run turns on critters' unpacked states, one per stepping thread
+    private final int initial; // State word of a new critter
+    private final EricParams params;
+    private final ColonySignals colony = ColonySignals.current(); // The same signals the worker joined
+    private final CritterInfoView packedInfo = new CritterInfoView(); // Over batch inputs, for table fallbacks
+    private byte[] threats = new byte[INITIAL_CAPACITY]; // ThreatKernel results of the current batch
+
+    private int[] words = new int[INITIAL_CAPACITY]; // EricState word of each critter, indexed by handle
+
+    private int[] free = new int[INITIAL_CAPACITY]; // Handles released by remove, reused before new ones
+    private int freeCount = 0;
+    private int size = 0; // Handles ever issued
+    private int live = 0;
+
+    public EricStore() {
+        this(EricParams.DEFAULT);
+    }
+
+    /**
+     * Creates an empty colony whose critters join the calling thread's ColonySignals, like new EricA critters
+     * @param params The constants governing every critter in the colony
+     */
+    public EricStore(EricParams params) {
+        this.params = params;
+        initial = new EricA(params).pack();
+        workers = ThreadLocal.withInitial(this::newWorker);
+    }
+
+    // A worker for the calling thread, joining the colony's signals rather than whichever the thread has installed
+    private EricA newWorker() {
+        ColonySignals previous = ColonySignals.current();
+        ColonySignals.install(colony);
+        try {
+            return new EricA(params);
+        } finally {
+            ColonySignals.install(previous);
+        }
+    }
+
+    @Override
+    public int add() {
+        int handle;
+        if (freeCount > 0) {
+            handle = free[--freeCount];
+        } else {
+            if (size == words.length)
+                words = Arrays.copyOf(words, size * 2);
+            handle = size++;
+        }
+        words[handle] = initial;
+        live++;
+        return handle;
+    }
+
+    @Override
+    public void remove(int handle) {
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = handle;
+        live--;
+    }
+
+    @Override
+    public Critter.Action getMove(int handle, CritterInfo info) {
+        EricA worker = workers.get();
+        worker.unpack(words[handle]);
+        Critter.Action action = worker.getMove(info);
+        words[handle] = worker.pack();
+        return action;
+    }
+
+    /**
+     * Takes the turns of many critters in one tight loop, making the same decisions as getMove under
+     * -Deric.compiled=true. ThreatKernel.best() first settles every critter reacting to an enemy, a vector at a time
+     * where the Vector API is available; each remaining critter is one EricDecisionTable lookup on primitive inputs,
+     * and only the keys the table leaves to chance go through the EricA worker. Critters are moved in order, so each
+     * sees the signals the critters before it left.
+     * @param handles The critters to move
+     * @param codes Each critter's neighbors, packed by Neighborhood.pack
+     * @param facings Each critter's own and neighbors' facings, packed by Neighborhood.packFacings
+     * @param actions Receives each critter's Action ordinal
+     * @param n The number of critters to move
+     */
+    public void getMoves(int[] handles, byte[] codes, int[] facings, byte[] actions, int n) {
+        if (threats.length < n)
+            threats = new byte[Math.max(n, threats.length * 2)];
+        ThreatKernel.best().triage(codes, threats, n);
+
+        int clumpSpeed = params.clumpSpeed();
+        int migratePromote = params.migratePromote();
+        for (int i = 0; i < n; i++) {
+            int handle = handles[i];
+            int word = words[handle];
+            int code = codes[i] & 0xFF;
+            int facing = Neighborhood.facing(facings[i]);
+            int frame = EricState.frame(word);
+            int commitTimer = EricState.commitTimer(word);
+            int commitDir = EricState.commitDir(word);
+
+            // Same oscillation as EricA.updateColor
+            int colDir = EricState.colDir(word);
+            int colPhase = EricState.colPhase(word) + colDir;
+            if (colPhase <= 0 || colPhase >= EricA.COL_PHASES - 1) {
+                colDir = colPhase <= 0 ? 1 : -1;
+                colPhase = colPhase <= 0 ? 0 : EricA.COL_PHASES - 1;
+            }
+
+            int threat = threats[i];
+            if (threat != ThreatKernel.SCALAR) {
+                if (threat == Critter.Action.INFECT.ordinal()) {
+                    commitDir = facing;
+                    commitTimer = params.commitTimerInit();
+                }
+                if (EricStats.ENABLED)
+                    EricStats.branch(threat == Critter.Action.INFECT.ordinal() ? EricStats.Branch.FRONT_INFECT
+                            : threat == Critter.Action.HOP.ordinal() ? EricStats.Branch.BACK_HOP
+                            : EricStats.Branch.ENEMY_TURN);
+                words[handle] = EricState.pack(frame, commitDir, EricState.migrateDir(word), commitTimer, colPhase,
+                        colDir, false);
+                actions[i] = (byte) threat;
+                continue;
+            }
+
+            int entry = EricDecisionTable.lookup(EricDecisionTable.key(code, DIRECTIONS[facing], FRAMES[frame],
+                    commitTimer > 0, colony.clump() + clumpSpeed >= params.clumpThreshold(),
+                    colony.migrate() + migratePromote >= params.migrateThreshold()));
+            if ((entry & EricDecisionTable.FALLBACK) != 0) {
+                packedInfo.point(code, facings[i]);
+                actions[i] = (byte) getMove(handle, packedInfo).ordinal();
+                continue;
+            }
+            if (EricStats.ENABLED)
+                EricStats.branch(entry >> EricDecisionTable.BRANCH_SHIFT & 7);
+
+            if ((entry & EricDecisionTable.SET_COMMIT) != 0) {
+                commitDir = facing;
+                commitTimer = params.commitTimerInit();
+            }
+            if ((entry & EricDecisionTable.BUMP_CLUMP) != 0)
+                colony.bumpClump(clumpSpeed);
+            if ((entry & EricDecisionTable.BUMP_MIGRATE) != 0)
+                colony.bumpMigrate(migratePromote);
+            int next = entry >> EricDecisionTable.STATE_SHIFT & 3;
+            if (EricStats.ENABLED && next != frame)
+                EricStats.transition(FRAMES[frame], FRAMES[next]);
+
+            int action = entry & EricDecisionTable.ACTION_MASK;
+            if ((entry & EricDecisionTable.COMMIT_TURN) != 0) {
+                commitTimer--;
+                action = DirectionTable.turn(DIRECTIONS[facing], DIRECTIONS[commitDir]).ordinal();
+            } else if ((entry & EricDecisionTable.ALIGN_FRIEND) != 0) {
+                int friendFacing = Neighborhood.facingAt(facings[i], entry >> EricDecisionTable.ALIGN_SHIFT & 3);
+                action = DirectionTable.turn(DIRECTIONS[facing], DIRECTIONS[friendFacing]).ordinal();
+            }
+            words[handle] = EricState.pack(next, commitDir, EricState.migrateDir(word), commitTimer, colPhase, colDir,
+                    false);
+            actions[i] = (byte) action;
+        }
+    }
+
+    /**
+     * @param handle A critter's handle
+     * @return The color EricA.getColor would return for it
+     */
+    public Color getColor(int handle) {
+        EricA worker = workers.get();
+        worker.unpack(words[handle]);
+        return worker.getColor();
+    }
+
+    /**
+     * @param handle A critter's handle
+     * @return The glyph EricA.toString would return for it
+     */
+    public String toString(int handle) {
+        EricA worker = workers.get();
+        worker.unpack(words[handle]);
+        return worker.toString();
+    }
+
+    /**
+     * @param handle A critter's handle
+     * @return The critter's EricState word
+     */
+    @Override
+    public int state(int handle) {
+        return words[handle];
+    }
+
+    /**
+     * Overwrites a critter's state, such as when restoring a snapshot
+     * @param handle A critter's handle
+     * @param word An EricState word
+     */
+    public void setState(int handle, int word) {
+        words[handle] = word;
+    }
+
+    /**
+     * @return The number of critters in the colony
+     */
+    public int size() {
+        return live;
+    }
+}
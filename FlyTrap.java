@@ -0,0 +1,22 @@
+import java.awt.Color;
+
+/**
+ * Stand-in for the simulator's stock FlyTrap, the baseline opponent for headless matches;
+ * infects whatever is in front of it and otherwise spins left
+ */
+public class FlyTrap extends Critter {
+    @Override
+    public Action getMove(CritterInfo info) {
+        return info.getFront() == Neighbor.OTHER ? Action.INFECT : Action.LEFT;
+    }
+
+    @Override
+    public Color getColor() {
+        return Color.RED;
+    }
+
+    @Override
+    public String toString() {
+        return "T";
+    }
+}
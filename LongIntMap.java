@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative long keys to int values, with no boxing and no per-entry objects: keys
+ * and values sit in two parallel arrays probed linearly, and removal shifts later entries back instead of leaving
+ * tombstones, so lookups stay short however many keys come and go. The table doubles whenever it gets half full.
+ */
+final class LongIntMap {
+    private static final long FREE = -1; // Key of an unused entry
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask; // Capacity - 1; capacity is a power of two
+    private int size = 0;
+    private final int missing; // Returned by get for absent keys
+
+    /**
+     * @param expected The number of keys to size the table for
+     * @param missing The value get returns for keys not in the map
+     */
+    LongIntMap(int expected, int missing) {
+        this.missing = missing;
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expected) * 2 - 1) << 1);
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param key A non-negative key
+     * @return Its value, or the missing value
+     */
+    int get(long key) {
+        for (int i = index(key); ; i = i + 1 & mask) {
+            long k = keys[i];
+            if (k == key)
+                return values[i];
+            if (k == FREE)
+                return missing;
+        }
+    }
+
+    /**
+     * Maps a key to a value, replacing any value it had
+     * @param key A non-negative key
+     * @param value The value
+     */
+    void put(long key, int value) {
+        int i = index(key);
+        for (; keys[i] != FREE; i = i + 1 & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > mask >> 1)
+            grow();
+    }
+
+    /**
+     * Removes a key, if present
+     * @param key A non-negative key
+     */
+    void remove(long key) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE)
+                return;
+            i = i + 1 & mask;
+        }
+        size--;
+
+        // Shift back every later entry of the probe run that would no longer be reachable across the gap
+        for (int j = i + 1 & mask; keys[j] != FREE; j = j + 1 & mask) {
+            int home = index(keys[j]);
+            if ((j - home & mask) >= (j - i & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = FREE;
+    }
+
+    /**
+     * @return The number of keys in the map
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == FREE)
+                continue;
+            int i = index(oldKeys[j]);
+            while (keys[i] != FREE)
+                i = i + 1 & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    // Fibonacci hashing: the key times 2^64 / phi, from bit 32 up
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Single-pass snapshot of a critter's four neighbors. pack reads front, left, right and back once and packs their
+ * Neighbor ordinals into one int, and every "closest neighbor of this type" query afterwards is answered from a
+ * precomputed table instead of going back through CritterInfo.
+ */
+public final class Neighborhood {
+    /* Code layout: two bits per Neighbor ordinal */
+
+    public static final int FRONT_SHIFT = 0;
+    public static final int LEFT_SHIFT = 2;
+    public static final int RIGHT_SHIFT = 4;
+    public static final int BACK_SHIFT = 6;
+    public static final int CODES = 1 << 8;
+
+    /* Facings layout: two bits per Direction ordinal, the critter's own and then its neighbors' clockwise from front */
+
+    private static final int OWN_FACING_SHIFT = 0;
+    private static final int NEIGHBOR_FACING_SHIFT = 2;
+
+    /* Results of closest */
+
+    public static final int NONE = -1; // No neighbor of the type
+    public static final int TIE = -2; // Left and right match equally; the caller breaks the tie
+
+    private static final Critter.Neighbor[] NEIGHBORS = Critter.Neighbor.values();
+
+    // Clockwise quarter turns from facing to the closest neighbor of a type, or NONE or TIE; [code << 2 | neighbor]
+    private static final byte[] CLOSEST = new byte[CODES << 2];
+
+    static {
+        for (int code = 0; code < CODES; code++) {
+            for (Critter.Neighbor neighbor : NEIGHBORS) {
+                int shift;
+                if (front(code) == neighbor)
+                    shift = 0;
+                else if (left(code) == right(code) && left(code) == neighbor)
+                    shift = TIE;
+                else if (left(code) == neighbor)
+                    shift = 3;
+                else if (right(code) == neighbor)
+                    shift = 1;
+                else if (back(code) == neighbor)
+                    shift = 2;
+                else
+                    shift = NONE;
+                CLOSEST[code << 2 | neighbor.ordinal()] = (byte) shift;
+            }
+        }
+    }
+
+    private Neighborhood() {
+    }
+
+    /**
+     * Reads a critter's four neighbors, the only CritterInfo neighbor calls needed for a whole turn
+     * @param info A current simulation.CritterInfo
+     * @return The packed neighborhood code
+     */
+    public static int pack(CritterInfo info) {
+        return info.getFront().ordinal() << FRONT_SHIFT
+                | info.getLeft().ordinal() << LEFT_SHIFT
+                | info.getRight().ordinal() << RIGHT_SHIFT
+                | info.getBack().ordinal() << BACK_SHIFT;
+    }
+
+    /**
+     * Reads the facings a critter's turn can depend on, its own and its neighbors', for batch moves
+     * @param info A current simulation.CritterInfo
+     * @return The packed facings; neighbors that are not critters read as ordinal 0
+     */
+    public static int packFacings(CritterInfo info) {
+        return packFacings(info.getDirection().ordinal(), ordinal(info.getFrontDirection()),
+                ordinal(info.getRightDirection()), ordinal(info.getBackDirection()), ordinal(info.getLeftDirection()));
+    }
+
+    /**
+     * Packs facings already read as Direction ordinals, in the layout of packFacings(CritterInfo)
+     * @param own The critter's own facing
+     * @param front The front neighbor's facing, or 0 if it is not a critter
+     * @param right The right neighbor's facing, or 0
+     * @param back The back neighbor's facing, or 0
+     * @param left The left neighbor's facing, or 0
+     * @return The packed facings
+     */
+    public static int packFacings(int own, int front, int right, int back, int left) {
+        return own << OWN_FACING_SHIFT
+                | front << NEIGHBOR_FACING_SHIFT
+                | right << NEIGHBOR_FACING_SHIFT + 2
+                | back << NEIGHBOR_FACING_SHIFT + 4
+                | left << NEIGHBOR_FACING_SHIFT + 6;
+    }
+
+    /**
+     * @param facings Facings packed by packFacings
+     * @return The critter's own Direction ordinal
+     */
+    public static int facing(int facings) {
+        return facings >> OWN_FACING_SHIFT & 3;
+    }
+
+    /**
+     * @param facings Facings packed by packFacings
+     * @param shift Quarter turns clockwise from the critter's facing to a neighbor (0 front, 1 right, 2 back, 3 left)
+     * @return That neighbor's Direction ordinal
+     */
+    public static int facingAt(int facings, int shift) {
+        return facings >> NEIGHBOR_FACING_SHIFT + 2 * (shift & 3) & 3;
+    }
+
+    private static int ordinal(Critter.Direction dir) {
+        return dir == null ? 0 : dir.ordinal();
+    }
+
+    public static Critter.Neighbor front(int code) {
+        return NEIGHBORS[code >> FRONT_SHIFT & 3];
+    }
+
+    public static Critter.Neighbor left(int code) {
+        return NEIGHBORS[code >> LEFT_SHIFT & 3];
+    }
+
+    public static Critter.Neighbor right(int code) {
+        return NEIGHBORS[code >> RIGHT_SHIFT & 3];
+    }
+
+    public static Critter.Neighbor back(int code) {
+        return NEIGHBORS[code >> BACK_SHIFT & 3];
+    }
+
+    /**
+     * Returns where the closest neighbor of a type is, preferring front, then left/right, then back
+     * @param code A packed neighborhood code
+     * @param neighbor The simulation.Critter.Neighbor type to locate
+     * @return Clockwise quarter turns from facing to it (0 front, 1 right, 2 back, 3 left), NONE or TIE
+     */
+    public static int closestShift(int code, Critter.Neighbor neighbor) {
+        return CLOSEST[code << 2 | neighbor.ordinal()];
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Random search over EricParams with successive halving: every surviving candidate plays a round of headless
+ * matches against the same opponents and seeds, and the worse half is dropped after each round, so clearly
+ * losing candidates stop consuming CPU early and the leaders collect the most matches. Candidates within a round
+ * are evaluated in parallel, each spreading its own matches over the same pool.
+ */
+public class ParameterSearch {
+    private final int width;
+    private final int height;
+    private final int perSpecies;
+    private final int ticks;
+    private final List<String> opponentNames = new ArrayList<>();
+    private final List<Supplier<? extends Critter>> opponents = new ArrayList<>();
+
+    /**
+     * @param width Number of columns on each match's board
+     * @param height Number of rows on each match's board
+     * @param perSpecies Critters of each species placed at the start of a match
+     * @param ticks Length of a match
+     */
+    public ParameterSearch(int width, int height, int perSpecies, int ticks) {
+        this.width = width;
+        this.height = height;
+        this.perSpecies = perSpecies;
+        this.ticks = ticks;
+    }
+
+    /**
+     * Enters a critter that every candidate plays against
+     * @param name Name of the opponent
+     * @param factory Creates new critters of this type
+     */
+    public void addOpponent(String name, Supplier<? extends Critter> factory) {
+        opponentNames.add(name);
+        opponents.add(factory);
+    }
+
+    /**
+     * Runs the search
+     * @param candidates The number of parameter sets to sample; EricParams.DEFAULT is always the first
+     * @param matchesPerRound Matches each surviving candidate plays per round
+     * @param seed Seed for sampling candidates and for match seeds
+     * @param pool The pool to run matches on
+     * @return Every candidate, best first, with the score from all the matches it played
+     */
+    public List<Candidate> search(int candidates, int matchesPerRound, long seed, ForkJoinPool pool) {
+        if (opponents.isEmpty())
+            throw new IllegalStateException("A search needs at least one opponent");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Candidate> all = new ArrayList<>();
+        all.add(new Candidate(EricParams.DEFAULT));
+        while (all.size() < candidates)
+            all.add(new Candidate(sample(random)));
+
+        List<Candidate> alive = new ArrayList<>(all);
+        while (true) {
+            // Every candidate in a round plays the same seeds, so differences come from parameters, not luck
+            long roundSeed = random.nextLong();
+            List<ForkJoinTask<Tournament.Standings>> rounds = new ArrayList<>(alive.size());
+            for (Candidate candidate : alive)
+                rounds.add(pool.submit(() -> tournament(candidate.params).play(matchesPerRound, roundSeed, pool)));
+            for (int i = 0; i < alive.size(); i++)
+                alive.get(i).add(rounds.get(i).join(), perSpecies * (opponents.size() + 1));
+
+            if (alive.size() == 1)
+                break;
+            alive.sort(Comparator.comparingDouble(Candidate::score).reversed());
+            alive.subList((alive.size() + 1) / 2, alive.size()).clear();
+        }
+
+        // Survivors of later rounds rank above candidates dropped earlier, then by score
+        all.sort(Comparator.comparingInt(Candidate::matches).thenComparingDouble(Candidate::score).reversed());
+        return all;
+    }
+
+    private Tournament tournament(EricParams params) {
+        Tournament tournament = new Tournament(width, height, perSpecies, ticks, ticks);
+        tournament.addContender("EricA", () -> new EricA(params));
+        for (int i = 0; i < opponents.size(); i++)
+            tournament.addContender(opponentNames.get(i), opponents.get(i));
+        return tournament;
+    }
+
+    /**
+     * Draws a random parameter set spread around EricParams.DEFAULT
+     * @param random The source of randomness
+     * @return The sampled parameters
+     */
+    private static EricParams sample(SplittableRandom random) {
+        EricParams base = EricParams.DEFAULT;
+        return new EricParams(
+                scaled(random, base.clumpThreshold()),
+                1 + random.nextInt(3),
+                scaled(random, base.migrateThreshold()),
+                1 + random.nextInt(3),
+                scaled(random, base.migrateInhibit()),
+                random.nextDouble(0.5),
+                random.nextInt(8));
+    }
+
+    // Log-uniform between a quarter and four times a default value
+    private static int scaled(SplittableRandom random, int value) {
+        return Math.max(1, (int) Math.round(value * Math.pow(4, random.nextDouble(-1, 1))));
+    }
+
+    /**
+     * A parameter set and its results so far
+     */
+    public static final class Candidate {
+        private final EricParams params;
+        private int matches = 0;
+        private double winTotal = 0;
+        private double shareTotal = 0;
+
+        private Candidate(EricParams params) {
+            this.params = params;
+        }
+
+        private void add(Tournament.Standings standings, int critters) {
+            double[] curve = standings.meanCurve(0);
+            matches += standings.matches();
+            winTotal += standings.winRate(0) * standings.matches();
+            shareTotal += curve[curve.length - 1] / critters * standings.matches();
+        }
+
+        public EricParams params() {
+            return params;
+        }
+
+        public int matches() {
+            return matches;
+        }
+
+        public double winRate() {
+            return matches == 0 ? 0 : winTotal / matches;
+        }
+
+        /**
+         * @return The mean share of the board EricA held at the end of its matches; smoother than the win rate
+         */
+        public double score() {
+            return matches == 0 ? 0 : shareTotal / matches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("score %.3f  win rate %5.1f%%  %4d matches  %s",
+                    score(), 100 * winRate(), matches, params);
+        }
+    }
+
+    /**
+     * Searches EricA's parameters against FlyTrap on every core and prints the leaders
+     * @param args Optional candidates, matches per round, ticks and seed
+     */
+    public static void main(String[] args) {
+        int candidates = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int matchesPerRound = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        ParameterSearch search = new ParameterSearch(60, 50, 25, ticks);
+        search.addOpponent("FlyTrap", FlyTrap::new);
+
+        long start = System.nanoTime();
+        List<Candidate> ranking = search.search(candidates, matchesPerRound, seed, ForkJoinPool.commonPool());
+        for (Candidate candidate : ranking.subList(0, Math.min(5, ranking.size())))
+            System.out.println(candidate);
+        System.out.printf("%.2f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Binary format of match replays, written by ReplayRecorder. A file starts with MAGIC, VERSION and the board's
+ * width, height and species count as varints, followed by records that each start with a tag byte:
+ * <pre>
+ * KEYFRAME  varint tick, varint count, then per slot: varint cell, byte facing | turn &lt;&lt; 2, byte species,
+ *           varint state
+ * TICK      varint tick, a bitmap of count bits (slot i is bit i % 8 of byte i / 8), then for every set bit in slot
+ *           order: byte turn, a species byte if turn has NEW_SPECIES, and a varint zigzag state delta if it has
+ *           NEW_STATE
+ * INDEX     int keyframes, then per keyframe: int tick, long file offset of its tag; then int last tick,
+ *           long file offset of the INDEX tag and int INDEX_MAGIC, so the index is found from the end of the file
+ * </pre>
+ * A slot's turn is the Action it took and whether it acted and moved. Clear bits in a TICK's bitmap mean the slot
+ * repeated its last turn with the same species and state, such as a FlyTrap spinning in place, so those critters
+ * cost a single bit. Facings and cells are not stored in TICKs; they follow from each turn's Action and MOVED bit.
+ * States are stored without EricState's color bits, which only depend on the number of turns taken.
+ * A KEYFRAME replaces the TICK record every ReplayRecorder keyframe interval and whenever critters are spawned, so
+ * any tick is at most one interval of TICKs away from a keyframe.
+ */
+final class Replay {
+    static final int MAGIC = 0x4552504C; // "ERPL"
+    static final int INDEX_MAGIC = 0x45525049; // "ERPI"
+    static final byte VERSION = 2;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES; // Index offset and INDEX_MAGIC
+
+    /* Record tags */
+
+    static final byte KEYFRAME = 'K';
+    static final byte TICK = 'T';
+    static final byte INDEX = 'I';
+
+    /* Turn byte layout */
+
+    static final int ACTION_MASK = 0x3; // simulation.Critter.Action ordinal, when ACTED
+    static final int ACTED = 1 << 2; // The critter took a turn; clear before its first turn or when infected first
+    static final int MOVED = 1 << 3; // The critter hopped into the cell in front of it
+    static final int NEW_SPECIES = 1 << 4; // Only in TICK records
+    static final int NEW_STATE = 1 << 5; // Only in TICK records
+    static final int REPEATABLE = ACTION_MASK | ACTED | MOVED; // The part of a turn a clear bitmap bit repeats
+
+    private Replay() {
+    }
+
+    static int zigzag(int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    static int unzigzag(int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
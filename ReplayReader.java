@@ -0,0 +1,328 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reconstructs any tick of a replay written by ReplayRecorder. The file is never read onto the heap: the keyframe
+ * index is read from the end of the file, and the stretch between a keyframe and the next one is memory-mapped on
+ * demand, so seeking to a tick costs one keyframe plus at most one keyframe interval of TICK records, and
+ * scrubbing forward within a stretch only decodes the ticks in between.
+ */
+public final class ReplayReader implements Closeable {
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+    private static final int[] DX = new int[4]; // By Direction ordinal
+    private static final int[] DY = new int[4];
+    private static final int LEFT = Critter.Action.LEFT.ordinal();
+    private static final int RIGHT = Critter.Action.RIGHT.ordinal();
+
+    static {
+        for (Critter.Direction dir : DIRECTIONS) {
+            switch (dir) {
+                case NORTH -> DY[dir.ordinal()] = -1;
+                case SOUTH -> DY[dir.ordinal()] = 1;
+                case EAST -> DX[dir.ordinal()] = 1;
+                case WEST -> DX[dir.ordinal()] = -1;
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int speciesCount;
+    private final int lastTick;
+
+    /* Keyframe index; stretch i runs from keyOffsets[i] to keyOffsets[i + 1], the last one to the index */
+
+    private final int[] keyTicks;
+    private final long[] keyOffsets;
+    private final long indexOffset;
+
+    private MappedByteBuffer stretch;
+    private int stretchIndex = -1;
+
+    /* Reconstructed state at the current tick, by slot */
+
+    private int[] cells = new int[0];
+    private byte[] facings = new byte[0];
+    private byte[] species = new byte[0];
+    private int[] states = new int[0];
+    private byte[] turns = new byte[0];
+    private int count = 0;
+    private int tick = -1;
+
+    private ReplayReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        ByteBuffer trailer = read(size - Replay.TRAILER_SIZE, Replay.TRAILER_SIZE);
+        indexOffset = trailer.getLong();
+        if (trailer.getInt() != Replay.INDEX_MAGIC || indexOffset < 0 || indexOffset >= size)
+            throw new IOException("Replay has no index; was its recorder closed?");
+
+        ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, size - indexOffset);
+        if (index.get() != Replay.INDEX)
+            throw new IOException("Corrupt replay index");
+        int keyframes = index.getInt();
+        keyTicks = new int[keyframes];
+        keyOffsets = new long[keyframes];
+        for (int i = 0; i < keyframes; i++) {
+            keyTicks[i] = index.getInt();
+            keyOffsets[i] = index.getLong();
+        }
+        lastTick = index.getInt();
+
+        ByteBuffer header = read(0, Math.min(32, (int) size));
+        if (header.getInt() != Replay.MAGIC)
+            throw new IOException("Not a replay file");
+        if (header.get() != Replay.VERSION)
+            throw new IOException("Unsupported replay version");
+        width = getVarint(header);
+        height = getVarint(header);
+        speciesCount = getVarint(header);
+        if (keyframes == 0)
+            throw new IOException("Replay has no keyframes");
+    }
+
+    /**
+     * Opens a replay, positioned before its first tick; call seek or next to read a tick
+     * @param file A replay file written by ReplayRecorder
+     * @return The reader
+     * @throws IOException If the file cannot be read or is not a complete replay
+     */
+    public static ReplayReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ReplayReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Moves to a tick, decoding forward from the current tick if it is in the same keyframe stretch and from the
+     * closest keyframe otherwise; a tick the recorder skipped lands on the next tick it recorded
+     * @param target A tick from firstTick through lastTick
+     * @throws IOException If the file cannot be read
+     */
+    public void seek(int target) throws IOException {
+        if (target < firstTick() || target > lastTick)
+            throw new IllegalArgumentException("Tick " + target + " is outside " + firstTick() + ".." + lastTick);
+        int key = Arrays.binarySearch(keyTicks, target);
+        if (key < 0)
+            key = -key - 2;
+        if (key != stretchIndex || tick > target)
+            load(key);
+        while (tick < target)
+            next();
+    }
+
+    /**
+     * Moves to the tick after the current one
+     * @return false if the current tick is the last one
+     * @throws IOException If the file cannot be read
+     */
+    public boolean next() throws IOException {
+        if (tick == lastTick)
+            return false;
+        if (stretchIndex < 0 || !stretch.hasRemaining()) {
+            load(stretchIndex + 1);
+            return true;
+        }
+        byte tag = stretch.get();
+        if (tag != Replay.TICK)
+            throw new IOException("Corrupt replay: unexpected record " + tag + " after tick " + tick);
+        readTick();
+        return true;
+    }
+
+    // Maps a keyframe stretch and reads its keyframe
+    private void load(int key) throws IOException {
+        long end = key + 1 < keyOffsets.length ? keyOffsets[key + 1] : indexOffset;
+        stretch = channel.map(FileChannel.MapMode.READ_ONLY, keyOffsets[key], end - keyOffsets[key]);
+        stretchIndex = key;
+        if (stretch.get() != Replay.KEYFRAME)
+            throw new IOException("Corrupt replay: index does not point at a keyframe");
+
+        tick = getVarint(stretch);
+        count = getVarint(stretch);
+        if (count > cells.length) {
+            cells = new int[count];
+            facings = new byte[count];
+            species = new byte[count];
+            states = new int[count];
+            turns = new byte[count];
+        }
+        for (int slot = 0; slot < count; slot++) {
+            cells[slot] = getVarint(stretch);
+            int packed = stretch.get();
+            facings[slot] = (byte) (packed & 3);
+            turns[slot] = (byte) (packed >> 2 & Replay.REPEATABLE);
+            species[slot] = stretch.get();
+            states[slot] = getVarint(stretch);
+        }
+    }
+
+    private void readTick() {
+        tick = getVarint(stretch);
+        int bitmap = stretch.position();
+        stretch.position(bitmap + ((count + 7) >> 3));
+        for (int slot = 0; slot < count; slot++) {
+            int turn = turns[slot];
+            if ((stretch.get(bitmap + (slot >> 3)) & 1 << (slot & 7)) != 0) {
+                int header = stretch.get();
+                turn = header & Replay.REPEATABLE;
+                turns[slot] = (byte) turn;
+                if ((header & Replay.NEW_SPECIES) != 0)
+                    species[slot] = stretch.get();
+                if ((header & Replay.NEW_STATE) != 0)
+                    states[slot] += Replay.unzigzag(getVarint(stretch));
+            }
+            if ((turn & Replay.ACTED) == 0)
+                continue;
+            int action = turn & Replay.ACTION_MASK;
+            if (action == LEFT || action == RIGHT)
+                facings[slot] = (byte) DirectionTable.rotate(DIRECTIONS[facings[slot]], action == LEFT ? -1 : 1)
+                        .ordinal();
+            if ((turn & Replay.MOVED) != 0)
+                cells[slot] += DX[facings[slot]] + DY[facings[slot]] * width;
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining())
+            if (channel.read(bytes, position + bytes.position()) < 0)
+                throw new IOException("Replay is truncated");
+        return bytes.flip();
+    }
+
+    private static int getVarint(ByteBuffer bytes) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = bytes.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int speciesCount() {
+        return speciesCount;
+    }
+
+    /**
+     * @return The tick of the first keyframe, usually 0
+     */
+    public int firstTick() {
+        return keyTicks[0];
+    }
+
+    public int lastTick() {
+        return lastTick;
+    }
+
+    /**
+     * @return The current tick, or -1 before the first seek or next
+     */
+    public int tick() {
+        return tick;
+    }
+
+    /**
+     * @return The number of critters at the current tick
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param slot A critter's slot, 0 through count - 1
+     * @return The board cell it occupies, y * width + x
+     */
+    public int cell(int slot) {
+        return cells[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return The Direction ordinal it faces
+     */
+    public int facing(int slot) {
+        return facings[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return Its species id
+     */
+    public int species(int slot) {
+        return species[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return Its packed state without EricState's color bits
+     */
+    public int state(int slot) {
+        return states[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return The Action ordinal it took in the current tick, or -1 if it did not act
+     */
+    public int action(int slot) {
+        int turn = turns[slot];
+        return (turn & Replay.ACTED) == 0 ? -1 : turn & Replay.ACTION_MASK;
+    }
+
+    /**
+     * @param speciesId A species id
+     * @return The number of critters of that species at the current tick
+     */
+    public int population(int speciesId) {
+        int population = 0;
+        for (int slot = 0; slot < count; slot++)
+            if (species[slot] == speciesId)
+                population++;
+        return population;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Seeks a replay to a tick and prints the populations there
+     * @param args The replay file, then an optional tick, by default the last
+     * @throws IOException If the replay cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        try (ReplayReader reader = open(Path.of(args[0]))) {
+            int target = args.length > 1 ? Integer.parseInt(args[1]) : reader.lastTick();
+            long start = System.nanoTime();
+            reader.seek(target);
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            StringBuilder populations = new StringBuilder();
+            for (int s = 0; s < reader.speciesCount(); s++)
+                populations.append(" species ").append(s).append(' ').append(reader.population(s));
+            System.out.printf("tick %d of %d:%s (%.2f ms)%n", reader.tick(), reader.lastTick(), populations, millis);
+        }
+    }
+}
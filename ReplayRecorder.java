@@ -0,0 +1,298 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records a World match in the compact Replay format, one TICK record per step, through a direct buffer
+ * flushed to an NIO channel. Each slot's last recorded turn, species and state are kept here, so a tick only
+ * writes what changed: a bit for every critter that repeated its turn, and a byte or two for the rest. A full
+ * keyframe is written every keyframe interval and indexed when the recorder is closed, for ReplayReader to seek by.
+ */
+public final class ReplayRecorder implements Closeable {
+    public static final int DEFAULT_KEYFRAME_EVERY = 1000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int ACTION_HOP = Critter.Action.HOP.ordinal();
+
+    private final World world;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int keyframeEvery;
+
+    /* Index of every keyframe written */
+
+    private int[] keyTicks = new int[16];
+    private long[] keyOffsets = new long[16];
+    private int keyframes = 0;
+
+    /* Last recorded values of each slot */
+
+    private int[] turns = new int[0];
+    private int[] species = new int[0];
+    private int[] states = new int[0];
+    private int[] cells = new int[0];
+
+    /* This tick's values, gathered before the bitmap is written */
+
+    private int[] nextTurns = new int[0];
+    private int[] nextStates = new int[0];
+    private byte[] bitmap = new byte[0];
+    private int count = 0;
+    private int lastTick; // Tick of the last record or keyframe
+
+    private long written = 0;
+
+    /**
+     * Starts a recording with the world's current state as its first keyframe
+     * @param world The world to record; record should be called after every step, as each tick it misses costs a
+     *              keyframe
+     * @param channel Where to write the replay; closed by close
+     * @param keyframeEvery Ticks between keyframes; readers replay at most this many ticks to reach any tick
+     * @throws IOException If writing fails
+     */
+    public ReplayRecorder(World world, WritableByteChannel channel, int keyframeEvery) throws IOException {
+        if (keyframeEvery <= 0)
+            throw new IllegalArgumentException("keyframeEvery must be positive, got " + keyframeEvery);
+        this.world = world;
+        this.channel = channel;
+        this.keyframeEvery = keyframeEvery;
+        ensure(16);
+        buffer.putInt(Replay.MAGIC);
+        buffer.put(Replay.VERSION);
+        putVarint(world.width());
+        putVarint(world.height());
+        putVarint(world.speciesCount());
+        keyframe();
+    }
+
+    /**
+     * Starts a recording into a file, replacing any file already there
+     * @param world The world to record
+     * @param file The replay file
+     * @return The recorder
+     * @throws IOException If the file cannot be opened or written
+     */
+    public static ReplayRecorder create(World world, Path file) throws IOException {
+        return create(world, file, DEFAULT_KEYFRAME_EVERY);
+    }
+
+    /**
+     * Starts a recording into a file, replacing any file already there
+     * @param world The world to record
+     * @param file The replay file
+     * @param keyframeEvery Ticks between keyframes
+     * @return The recorder
+     * @throws IOException If the file cannot be opened or written
+     */
+    public static ReplayRecorder create(World world, Path file, int keyframeEvery) throws IOException {
+        return new ReplayRecorder(world, FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), keyframeEvery);
+    }
+
+    /**
+     * Records the tick the world just stepped
+     * @throws IOException If writing fails
+     * @throws IllegalStateException If the world has not stepped since the last record
+     */
+    public void record() throws IOException {
+        int tick = world.tick();
+        if (tick <= lastTick)
+            throw new IllegalStateException("Tick " + tick + " is already recorded");
+
+        // A TICK carries one turn of movement per critter, so neither skipped ticks nor spawned critters fit in one
+        if (tick != lastTick + 1 || world.count() != count || tick % keyframeEvery == 0) {
+            keyframe();
+            return;
+        }
+        lastTick = tick;
+
+        Arrays.fill(bitmap, (byte) 0);
+        for (int slot = 0; slot < count; slot++) {
+            nextTurns[slot] = turn(slot);
+            nextStates[slot] = state(slot);
+            cells[slot] = world.cell(slot);
+            if (nextTurns[slot] != turns[slot] || world.species(slot) != species[slot]
+                    || nextStates[slot] != states[slot])
+                bitmap[slot >> 3] |= (byte) (1 << (slot & 7));
+        }
+
+        ensure(6);
+        buffer.put(Replay.TICK);
+        putVarint(world.tick());
+        put(bitmap, (count + 7) >> 3);
+        for (int slot = 0; slot < count; slot++) {
+            if ((bitmap[slot >> 3] & 1 << (slot & 7)) == 0)
+                continue;
+            int turn = nextTurns[slot];
+            int speciesId = world.species(slot);
+            int state = nextStates[slot];
+            int header = turn | (speciesId != species[slot] ? Replay.NEW_SPECIES : 0)
+                    | (state != states[slot] ? Replay.NEW_STATE : 0);
+            ensure(7);
+            buffer.put((byte) header);
+            if (speciesId != species[slot])
+                buffer.put((byte) speciesId);
+            if (state != states[slot])
+                putVarint(Replay.zigzag(state - states[slot]));
+            remember(slot, turn, speciesId, state);
+        }
+    }
+
+    /**
+     * Writes the state of every slot in full, which readers can start from without earlier records
+     * @throws IOException If writing fails
+     */
+    private void keyframe() throws IOException {
+        if (keyframes == keyTicks.length) {
+            keyTicks = Arrays.copyOf(keyTicks, keyframes * 2);
+            keyOffsets = Arrays.copyOf(keyOffsets, keyframes * 2);
+        }
+        keyTicks[keyframes] = world.tick();
+        keyOffsets[keyframes++] = bytesWritten();
+        lastTick = world.tick();
+
+        int previous = count;
+        count = world.count();
+        if (count > turns.length) {
+            turns = Arrays.copyOf(turns, count);
+            species = Arrays.copyOf(species, count);
+            states = Arrays.copyOf(states, count);
+            cells = Arrays.copyOf(cells, count);
+            nextTurns = new int[count];
+            nextStates = new int[count];
+            bitmap = new byte[(count + 7) >> 3];
+        }
+
+        ensure(11);
+        buffer.put(Replay.KEYFRAME);
+        putVarint(world.tick());
+        putVarint(count);
+        for (int slot = 0; slot < count; slot++) {
+            int turn = slot < previous ? turn(slot) : 0;
+            int speciesId = world.species(slot);
+            int state = state(slot);
+            ensure(12);
+            putVarint(world.cell(slot));
+            buffer.put((byte) (world.facing(slot) | turn << 2));
+            buffer.put((byte) speciesId);
+            putVarint(state);
+            remember(slot, turn, speciesId, state);
+        }
+    }
+
+    /**
+     * @return The number of bytes of the replay so far, including any still buffered
+     */
+    public long bytesWritten() {
+        return written + buffer.position();
+    }
+
+    /**
+     * Writes the keyframe index and closes the channel
+     * @throws IOException If writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = bytesWritten();
+            ensure(1 + Integer.BYTES);
+            buffer.put(Replay.INDEX);
+            buffer.putInt(keyframes);
+            for (int i = 0; i < keyframes; i++) {
+                ensure(Integer.BYTES + Long.BYTES);
+                buffer.putInt(keyTicks[i]);
+                buffer.putLong(keyOffsets[i]);
+            }
+            ensure(Integer.BYTES + Replay.TRAILER_SIZE);
+            buffer.putInt(world.tick());
+            buffer.putLong(indexOffset);
+            buffer.putInt(Replay.INDEX_MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // A slot's turn in the last tick, from the world's action and whether its cell changed
+    private int turn(int slot) {
+        int action = world.action(slot);
+        if (action < 0)
+            return 0;
+        boolean moved = action == ACTION_HOP && world.cell(slot) != cells[slot];
+        return action | Replay.ACTED | (moved ? Replay.MOVED : 0);
+    }
+
+    private int state(int slot) {
+        return EricState.behavior(world.state(slot));
+    }
+
+    private void remember(int slot, int turn, int speciesId, int state) {
+        turns[slot] = turn;
+        species[slot] = speciesId;
+        states[slot] = state;
+        cells[slot] = world.cell(slot);
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void put(byte[] bytes, int length) throws IOException {
+        for (int offset = 0; offset < length; ) {
+            ensure(1);
+            int chunk = Math.min(length - offset, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            written += channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Records a headless EricA vs. FlyTrap match and reports the replay's size
+     * @param args The replay file, then optional width, height, critters per species, ticks and seed
+     * @throws IOException If the replay cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int perSpecies = args.length > 3 ? Integer.parseInt(args[3]) : 25;
+        int ticks = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        CritterWorld world = new CritterWorld(width, height, seed);
+        world.spawn(world.addSpecies(EricA::new), perSpecies);
+        world.spawn(world.addSpecies(FlyTrap::new), perSpecies);
+
+        long bytes;
+        try (ReplayRecorder recorder = create(world, file)) {
+            for (int i = 0; i < ticks; i++) {
+                world.step();
+                recorder.record();
+            }
+            bytes = recorder.bytesWritten();
+        }
+        System.out.printf("%d ticks, %d critters: %d bytes, %.3f bytes per critter per tick%n",
+                ticks, world.count(), bytes, (double) bytes / ticks / world.count());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Critter world for boards that are mostly empty. The board is a LongIntMap from each occupied cell's packed (x, y)
+ * to the slot of its critter, so memory and cache footprint follow the population instead of the area, and a
+ * neighbor lookup is one short probe whatever the board's size. Stepping is World's, so a seed plays out
+ * exactly as it does on a CritterWorld; World.forDensity picks between the two per match.
+ */
+public class SparseWorld extends World {
+    private final LongIntMap board; // Slot of the critter in each occupied cell
+
+    /**
+     * Creates an empty world
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     */
+    public SparseWorld(int width, int height, long seed) {
+        this(width, height, seed, 0);
+    }
+
+    /**
+     * Creates an empty world with storage sized for a population
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     * @param critters The number of critters that will be spawned
+     */
+    public SparseWorld(int width, int height, long seed, int critters) {
+        super(width, height, seed, critters);
+        board = new LongIntMap(critters, NONE);
+    }
+
+    @Override
+    int occupant(int cell) {
+        return board.get(key(cell));
+    }
+
+    @Override
+    void place(int slot, int cell) {
+        board.put(key(cell), slot);
+    }
+
+    @Override
+    void move(int slot, int from, int to) {
+        board.remove(key(from));
+        board.put(key(to), slot);
+    }
+
+    /**
+     * @param cell A cell index, y * width + x
+     * @return The cell's coordinates packed as y in the high int and x in the low one
+     */
+    private long key(int cell) {
+        return (long) (cell / width) << 32 | cell % width;
+    }
+
+    /**
+     * Runs a headless EricA vs. FlyTrap match on a sparse board and reports populations and throughput
+     * @param args Optional width, height, critters per species, ticks and seed
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int perSpecies = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        SparseWorld world = new SparseWorld(width, height, seed, 2 * perSpecies);
+        int eric = world.addColony(EricStore::new);
+        int flyTrap = world.addSpecies(FlyTrap::new);
+        world.spawn(eric, perSpecies);
+        world.spawn(flyTrap, perSpecies);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++)
+            world.step();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%dx%d sparse, %d ticks: EricA %d, FlyTrap %d%n",
+                width, height, ticks, world.population(eric), world.population(flyTrap));
+        System.out.printf("%.0f critter-turns/s%n", (double) ticks * world.count() / seconds);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Evaluates the top of EricA's priority cascade, the rules that react to enemies, for many critters at once:
+ * infect an enemy in front, hop away from an enemy behind, and turn toward an enemy on the left or right. Critters
+ * these rules settle get their Action; the rest (no enemy around, an enemy only behind, or enemies on both sides)
+ * are marked SCALAR for the full cascade. best() uses VectorThreatKernel, built from vector/ with the incubating
+ * Vector API, when it was compiled and jdk.incubator.vector is present, and a table lookup otherwise.
+ */
+abstract class ThreatKernel {
+    static final byte SCALAR = -1; // The rules do not settle this critter
+
+    private static final byte[] TRIAGE = new byte[Neighborhood.CODES];
+
+    static {
+        for (int code = 0; code < Neighborhood.CODES; code++)
+            TRIAGE[code] = triage(code);
+    }
+
+    private static final ThreatKernel BEST = load();
+
+    /**
+     * Classifies critters by their neighbors
+     * @param codes Each critter's neighbors, packed by Neighborhood.pack
+     * @param out Receives each critter's Action ordinal, or SCALAR
+     * @param n The number of critters
+     */
+    abstract void triage(byte[] codes, byte[] out, int n);
+
+    /**
+     * @return A name for reports
+     */
+    abstract String name();
+
+    /**
+     * @return The vector kernel if it can be loaded, otherwise the scalar one
+     */
+    static ThreatKernel best() {
+        return BEST;
+    }
+
+    /**
+     * @return The table lookup kernel, available everywhere
+     */
+    static ThreatKernel scalar() {
+        return Scalar.INSTANCE;
+    }
+
+    /**
+     * Applies the threat rules to a single neighborhood
+     * @param code A packed neighborhood code
+     * @return The Action ordinal the rules settle on, or SCALAR
+     */
+    static byte triage(int code) {
+        if (Neighborhood.front(code) == Critter.Neighbor.OTHER)
+            return (byte) Critter.Action.INFECT.ordinal();
+        if (Neighborhood.back(code) == Critter.Neighbor.OTHER && Neighborhood.front(code) == Critter.Neighbor.EMPTY)
+            return (byte) Critter.Action.HOP.ordinal();
+        boolean left = Neighborhood.left(code) == Critter.Neighbor.OTHER;
+        boolean right = Neighborhood.right(code) == Critter.Neighbor.OTHER;
+        if (left != right) // A lone enemy on one side is always a single quarter turn away
+            return (byte) (left ? Critter.Action.LEFT : Critter.Action.RIGHT).ordinal();
+        return SCALAR;
+    }
+
+    // The Vector API is an incubator module, so VectorThreatKernel is only reachable by name
+    private static ThreatKernel load() {
+        String pkg = ThreatKernel.class.getPackageName();
+        try {
+            return (ThreatKernel) Class.forName(pkg.isEmpty() ? "VectorThreatKernel" : pkg + ".VectorThreatKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Scalar.INSTANCE;
+        }
+    }
+
+    private static final class Scalar extends ThreatKernel {
+        private static final Scalar INSTANCE = new Scalar();
+
+        @Override
+        void triage(byte[] codes, byte[] out, int n) {
+            for (int i = 0; i < n; i++)
+                out[i] = TRIAGE[codes[i] & 0xFF];
+        }
+
+        @Override
+        String name() {
+            return "scalar";
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays many independent headless matches between a fixed set of critters across all cores and aggregates win
+ * rates and population curves. Every match runs in its own World, dense or sparse by World.forDensity, with its own
+ * seed, CritterRandom and ColonySignals, so matches share nothing and throughput grows with the number of worker
+ * threads.
+ */
+public class Tournament {
+    private final int width;
+    private final int height;
+    private final int perSpecies;
+    private final int ticks;
+    private final int sampleEvery;
+    private final List<String> names = new ArrayList<>();
+    private final List<Supplier<? extends Critter>> factories = new ArrayList<>();
+
+    /**
+     * @param width Number of columns on each match's board
+     * @param height Number of rows on each match's board
+     * @param perSpecies Critters of each contender placed at the start of a match
+     * @param ticks Length of a match; matches end early once one contender is left
+     * @param sampleEvery Ticks between population curve samples
+     */
+    public Tournament(int width, int height, int perSpecies, int ticks, int sampleEvery) {
+        if (ticks <= 0 || sampleEvery <= 0)
+            throw new IllegalArgumentException("ticks and sampleEvery must be positive");
+        this.width = width;
+        this.height = height;
+        this.perSpecies = perSpecies;
+        this.ticks = ticks;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Enters a critter into every match
+     * @param name Name to report the critter under
+     * @param factory Creates new critters of this type
+     */
+    public void addContender(String name, Supplier<? extends Critter> factory) {
+        names.add(name);
+        factories.add(factory);
+    }
+
+    /**
+     * Plays matches in parallel
+     * @param matches The number of matches to play
+     * @param seed Seed from which every match's own seed is drawn
+     * @param pool The pool to run matches on
+     * @return The aggregated results, identical for the same seed regardless of the pool's size
+     */
+    public Standings play(int matches, long seed, ForkJoinPool pool) {
+        if (factories.size() < 2)
+            throw new IllegalStateException("A tournament needs at least two contenders");
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<ForkJoinTask<Match>> tasks = new ArrayList<>(matches);
+        for (int i = 0; i < matches; i++) {
+            long matchSeed = seeds.nextLong();
+            tasks.add(pool.submit(() -> playMatch(matchSeed)));
+        }
+
+        Standings standings = new Standings(names, ticks / sampleEvery + 1);
+        for (ForkJoinTask<Match> task : tasks)
+            standings.add(task.join());
+        return standings;
+    }
+
+    /**
+     * Plays a single match to completion
+     * @param seed The match's seed
+     * @return Its winner and population curves
+     */
+    private Match playMatch(long seed) {
+        int contenders = factories.size();
+        World world = World.forDensity(width, height, seed, contenders * perSpecies);
+        for (Supplier<? extends Critter> factory : factories)
+            world.spawn(world.addSpecies(factory), perSpecies);
+
+        int[][] curves = new int[contenders][ticks / sampleEvery + 1];
+        int samples = 0;
+        while (true) {
+            if (world.tick() % sampleEvery == 0) {
+                for (int s = 0; s < contenders; s++)
+                    curves[s][samples] = world.population(s);
+                samples++;
+            }
+
+            int alive = 0;
+            for (int s = 0; s < contenders; s++)
+                if (world.population(s) > 0)
+                    alive++;
+            if (alive <= 1 || world.tick() == ticks)
+                break;
+            world.step();
+        }
+
+        // Once a match is decided the populations stop changing, so carry the last sample to the end of the curve
+        for (int[] curve : curves)
+            for (int i = samples; i < curve.length; i++)
+                curve[i] = curve[samples - 1];
+
+        int winner = 0;
+        boolean draw = false;
+        for (int s = 1; s < contenders; s++) {
+            if (world.population(s) > world.population(winner)) {
+                winner = s;
+                draw = false;
+            } else if (world.population(s) == world.population(winner)) {
+                draw = true;
+            }
+        }
+        return new Match(draw ? -1 : winner, curves);
+    }
+
+    /**
+     * Outcome of a single match
+     * @param winner Index of the contender with the largest final population, or -1 for a draw
+     * @param curves Population of each contender at every sample
+     */
+    private record Match(int winner, int[][] curves) {
+    }
+
+    /**
+     * Results aggregated over every match of a tournament
+     */
+    public static final class Standings {
+        private final List<String> names;
+        private final int[] wins;
+        private final long[][] curveTotals;
+        private int draws = 0;
+        private int matches = 0;
+
+        private Standings(List<String> names, int samples) {
+            this.names = List.copyOf(names);
+            this.wins = new int[names.size()];
+            this.curveTotals = new long[names.size()][samples];
+        }
+
+        private void add(Match match) {
+            matches++;
+            if (match.winner() < 0)
+                draws++;
+            else
+                wins[match.winner()]++;
+            for (int s = 0; s < wins.length; s++)
+                for (int i = 0; i < curveTotals[s].length; i++)
+                    curveTotals[s][i] += match.curves()[s][i];
+        }
+
+        /**
+         * @param contender Index of a contender, in the order they were added
+         * @return The fraction of matches the contender won outright
+         */
+        public double winRate(int contender) {
+            return matches == 0 ? 0 : (double) wins[contender] / matches;
+        }
+
+        /**
+         * @param contender Index of a contender, in the order they were added
+         * @return The contender's population at every sample, averaged over all matches
+         */
+        public double[] meanCurve(int contender) {
+            double[] curve = new double[curveTotals[contender].length];
+            for (int i = 0; i < curve.length; i++)
+                curve[i] = matches == 0 ? 0 : (double) curveTotals[contender][i] / matches;
+            return curve;
+        }
+
+        public int matches() {
+            return matches;
+        }
+
+        public int draws() {
+            return draws;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(matches + " matches, " + draws + " draws\n");
+            for (int s = 0; s < wins.length; s++) {
+                double[] curve = meanCurve(s);
+                out.append(String.format("%-10s win rate %5.1f%%  mean population", names.get(s), 100 * winRate(s)));
+                for (int i = 0; i < curve.length; i += Math.max(1, curve.length / 8))
+                    out.append(String.format(" %7.1f", curve[i]));
+                out.append(String.format(" %7.1f%n", curve[curve.length - 1]));
+            }
+            return out.toString();
+        }
+    }
+
+    /**
+     * Runs an EricA vs. FlyTrap tournament on every core
+     * @param args Optional matches, ticks, width, height, critters per species and seed
+     */
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        int perSpecies = args.length > 4 ? Integer.parseInt(args[4]) : 25;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        Tournament tournament = new Tournament(width, height, perSpecies, ticks, Math.max(1, ticks / 100));
+        tournament.addContender("EricA", EricA::new);
+        tournament.addContender("FlyTrap", FlyTrap::new);
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        Standings standings = tournament.play(matches, seed, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(standings);
+        System.out.printf("%.2f s on %d threads%n", seconds, pool.getParallelism());
+        if (EricStats.ENABLED)
+            System.out.print(EricStats.report());
+    }
+}
@@ -0,0 +1,636 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Base of the headless critter worlds. Every critter's position, facing and species live in primitive arrays
+ * indexed by slot, and a reusable CritterInfoView is re-pointed at each critter, so stepping a world
+ * allocates nothing beyond the critters created by infections. Subclasses decide how the board maps cells to slots.
+ * Species registered with addColony are stored as handles into a CritterColony, and their infections allocate
+ * nothing at all.
+ */
+public abstract class World {
+    static final int NONE = -1;
+
+    /* Where forDensity switches to a SparseWorld */
+
+    static final int SPARSE_MIN_CELLS = 1 << 24; // 64 MB of dense board
+    static final double SPARSE_MAX_DENSITY = 0.002; // Critters per cell
+    private static final int STRIPES_PER_THREAD = 4; // Spare stripes for threads that finish early to steal
+    private static final int GRAIN = 256; // Critters below which a deciding task stops splitting
+    private static final Critter.Action[] ACTIONS = Critter.Action.values();
+
+    /* Direction tables, indexed by Critter.Direction ordinal */
+
+    static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+    static final int[] DX = new int[4];
+    static final int[] DY = new int[4];
+    static final byte[] LEFT_OF = new byte[4];
+    static final byte[] RIGHT_OF = new byte[4];
+    static final byte[] BACK_OF = new byte[4];
+
+    static {
+        for (Critter.Direction dir : DIRECTIONS) {
+            int i = dir.ordinal();
+            switch (dir) {
+                case NORTH -> { DY[i] = -1; LEFT_OF[i] = ord(Critter.Direction.WEST); }
+                case SOUTH -> { DY[i] = 1; LEFT_OF[i] = ord(Critter.Direction.EAST); }
+                case EAST -> { DX[i] = 1; LEFT_OF[i] = ord(Critter.Direction.NORTH); }
+                case WEST -> { DX[i] = -1; LEFT_OF[i] = ord(Critter.Direction.SOUTH); }
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            BACK_OF[i] = LEFT_OF[LEFT_OF[i]];
+            RIGHT_OF[i] = LEFT_OF[LEFT_OF[LEFT_OF[i]]];
+        }
+    }
+
+    final int width;
+    final int height;
+    final SplittableRandom random;
+    private final long critterSeed; // Seed of critterRandom and of the generators of stepParallel's threads
+    final CounterRandom critterRandom; // Installed while stepping and keyed to each turn's tick and slot
+    final ColonySignals colonySignals = new ColonySignals(); // Installed so critters coordinate per world
+    private final List<Supplier<? extends Critter>> species = new ArrayList<>(); // null for colony species
+    CritterColony[] colonies = new CritterColony[0]; // Storage of each colony species, null for the rest
+
+    /* Per-critter storage; critters are never removed, so slots 0 through count - 1 are always live */
+
+    Critter[] critters; // null for critters of colony species
+    int[] handleOf; // Colony handle of each critter of a colony species
+    int[] cellOf;
+    byte[] speciesOf;
+    byte[] facing; // Direction ordinal of each critter
+    int[] convertedAt; // Tick a critter was created by an infection; it sits out the rest of that tick
+    byte[] actionOf; // Action ordinal each critter took in the last tick, or NONE if it sat out
+    int[] order; // Turn order, reshuffled every tick
+    int[] populations = new int[0];
+    int count = 0;
+    int tick = 0;
+
+    final CritterInfoView view = new CritterInfoView(this); // For the thread stepping the world
+
+    /* stepParallel's slots grouped by stripe; stripe i's slots run from stripeStart[i] to stripeStart[i + 1] */
+
+    private int[] byStripe = new int[0];
+    private int[] stripeStart = new int[0];
+    private int stripeRows = 1; // Rows per stripe of the default stripes
+
+    /**
+     * Creates an empty world
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws, which depend only on
+     *             the seed, tick and slot and not on turn order
+     * @param capacity Critters to allocate storage for up front; spawn grows the storage past it
+     */
+    World(int width, int height, long seed, int capacity) {
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Board must be 1x1 to " + Integer.MAX_VALUE + " cells, got "
+                    + width + "x" + height);
+        this.width = width;
+        this.height = height;
+        this.random = new SplittableRandom(seed);
+        this.critterSeed = random.nextLong();
+        this.critterRandom = new CounterRandom(critterSeed);
+        allocate(capacity);
+    }
+
+    /**
+     * Creates a world for a match, choosing its board by how full it will be. CritterWorld's dense board is the
+     * fastest per turn at every density, but it costs 4 bytes per cell against SparseWorld's 60 or so per critter;
+     * on boards of at least SPARSE_MIN_CELLS cells that critters fill less than SPARSE_MAX_DENSITY of, where the
+     * dense board takes 64 MB or more and SparseWorld is at most about a quarter slower per turn, a SparseWorld is
+     * returned instead. Both play a seed identically.
+     * @param width Number of columns on the board
+     * @param height Number of rows on the board
+     * @param seed Seed for critter placement, turn order and the critters' CritterRandom draws
+     * @param critters The number of critters that will be spawned
+     * @return A CritterWorld or SparseWorld
+     */
+    public static World forDensity(int width, int height, long seed, int critters) {
+        long cells = (long) width * height;
+        if (cells >= SPARSE_MIN_CELLS && critters < cells * SPARSE_MAX_DENSITY)
+            return new SparseWorld(width, height, seed, critters);
+        return new CritterWorld(width, height, seed, critters);
+    }
+
+    /* Board storage */
+
+    /**
+     * @param cell A cell index, y * width + x
+     * @return The slot of the critter in the cell, or NONE
+     */
+    abstract int occupant(int cell);
+
+    /**
+     * Puts a newly spawned critter in an empty cell
+     * @param slot The critter's slot
+     * @param cell The cell
+     */
+    abstract void place(int slot, int cell);
+
+    /**
+     * Moves a critter from its cell to an empty one
+     * @param slot The critter's slot
+     * @param from Its current cell
+     * @param to The empty cell it hops into
+     */
+    abstract void move(int slot, int from, int to);
+
+    /**
+     * Called after an infection changes a critter's species, for boards that index critters by species
+     * @param slot The infected critter's slot; speciesOf already holds its new species
+     * @param from Its species before the infection
+     */
+    void converted(int slot, int from) {
+    }
+
+    private void allocate(int capacity) {
+        critters = Arrays.copyOf(critters == null ? new Critter[0] : critters, capacity);
+        handleOf = Arrays.copyOf(handleOf == null ? new int[0] : handleOf, capacity);
+        cellOf = Arrays.copyOf(cellOf == null ? new int[0] : cellOf, capacity);
+        speciesOf = Arrays.copyOf(speciesOf == null ? new byte[0] : speciesOf, capacity);
+        facing = Arrays.copyOf(facing == null ? new byte[0] : facing, capacity);
+        convertedAt = Arrays.copyOf(convertedAt == null ? new int[0] : convertedAt, capacity);
+        actionOf = Arrays.copyOf(actionOf == null ? new byte[0] : actionOf, capacity);
+        order = Arrays.copyOf(order == null ? new int[0] : order, capacity);
+    }
+
+    /**
+     * Registers a critter type with the world
+     * @param factory Creates new critters of this type, both for spawning and for infections
+     * @return The species id to pass to spawn and population
+     */
+    public int addSpecies(Supplier<? extends Critter> factory) {
+        return register(factory, null);
+    }
+
+    /**
+     * Registers a species whose critters live in a CritterColony's arrays instead of as Critter objects
+     * @param factory Creates the colony; called once, with this world's ColonySignals installed
+     * @return The species id to pass to spawn and population
+     */
+    public int addColony(Supplier<? extends CritterColony> factory) {
+        ColonySignals previous = ColonySignals.current();
+        ColonySignals.install(colonySignals);
+        try {
+            return register(null, factory.get());
+        } finally {
+            ColonySignals.install(previous);
+        }
+    }
+
+    private int register(Supplier<? extends Critter> factory, CritterColony colony) {
+        if (species.size() == Byte.MAX_VALUE)
+            throw new IllegalStateException("World supports at most " + Byte.MAX_VALUE + " species");
+        species.add(factory);
+        colonies = Arrays.copyOf(colonies, species.size());
+        colonies[species.size() - 1] = colony;
+        populations = Arrays.copyOf(populations, species.size());
+        speciesAdded(species.size() - 1);
+        return species.size() - 1;
+    }
+
+    /**
+     * Called when a species is registered, for boards that index critters by species
+     * @param speciesId The new species' id
+     */
+    void speciesAdded(int speciesId) {
+    }
+
+    /**
+     * Places critters of a species on random empty cells, facing random directions
+     * @param speciesId A species id from addSpecies or addColony
+     * @param amount The number of critters to place
+     */
+    public void spawn(int speciesId, int amount) {
+        int cells = width * height;
+        if (amount > cells - count)
+            throw new IllegalStateException("Cannot fit " + amount + " more critters on a board with "
+                    + (cells - count) + " empty cells");
+        if (count + amount > order.length)
+            allocate(Math.max(count + amount, order.length * 2));
+
+        ColonySignals previous = ColonySignals.current();
+        ColonySignals.install(colonySignals);
+        try {
+            for (int i = 0; i < amount; i++) {
+                int cell;
+                do {
+                    cell = random.nextInt(cells);
+                } while (occupant(cell) != NONE);
+
+                int slot = count++;
+                cellOf[slot] = cell;
+                speciesOf[slot] = (byte) speciesId;
+                facing[slot] = (byte) random.nextInt(4);
+                place(slot, cell);
+                create(slot, speciesId);
+                convertedAt[slot] = NONE;
+                actionOf[slot] = NONE;
+                order[slot] = slot;
+                populations[speciesId]++;
+            }
+        } finally {
+            ColonySignals.install(previous);
+        }
+    }
+
+    /**
+     * Advances the world one tick, giving every critter a single turn in a freshly shuffled order
+     */
+    public void step() {
+        tick++;
+        shuffle();
+
+        CritterRandom previousRandom = CritterRandom.current();
+        ColonySignals previousSignals = ColonySignals.current();
+        CritterRandom.install(critterRandom);
+        ColonySignals.install(colonySignals);
+        try {
+            for (int i = 0; i < count; i++) {
+                int slot = order[i];
+                if (convertedAt[slot] == tick) {
+                    actionOf[slot] = NONE;
+                    continue;
+                }
+                view.point(slot);
+                Critter.Action action = decide(slot, view, critterRandom);
+                actionOf[slot] = (byte) action.ordinal();
+                apply(slot, action);
+            }
+        } finally {
+            CritterRandom.install(previousRandom);
+            ColonySignals.install(previousSignals);
+        }
+    }
+
+    /**
+     * Advances the world one tick in two phases. First every critter decides against the board as it stands at the
+     * start of the tick, with the world's ColonySignals frozen, in parallel over stripes of the board; then the
+     * decisions are applied one at a time in a freshly shuffled order under the usual rules, so a HOP only succeeds
+     * if the cell is still empty, an INFECT only if its target is still an enemy, and a critter infected before its
+     * decision is applied sits out. No decision depends on the thread it was made on or on the other decisions, so
+     * every pool, and deciding on the calling thread, steps a world to exactly the same state. Matches differ from
+     * step's, where each critter sees the moves made before its turn.
+     * @param pool The pool to decide on, or null to decide on the calling thread
+     */
+    public void stepParallel(ForkJoinPool pool) {
+        tick++;
+        shuffle();
+        snapshot();
+
+        colonySignals.freeze();
+        try {
+            if (pool == null) {
+                prepare(0, stripes(1));
+                decideAll(order, 0, count, view, critterRandom);
+            } else {
+                int stripes = group(pool.getParallelism() * STRIPES_PER_THREAD);
+                pool.invoke(new Decide(0, stripes));
+            }
+        } finally {
+            colonySignals.thaw();
+        }
+
+        ColonySignals previous = ColonySignals.current();
+        ColonySignals.install(colonySignals); // Critters created by infections join this world's signals
+        try {
+            for (int i = 0; i < count; i++) {
+                int slot = order[i];
+                if (convertedAt[slot] == tick)
+                    actionOf[slot] = NONE;
+                else
+                    apply(slot, ACTIONS[actionOf[slot]]);
+            }
+        } finally {
+            ColonySignals.install(previous);
+        }
+    }
+
+    /**
+     * Called by stepParallel before any critter decides, for boards that precompute a tick's neighbors
+     */
+    void snapshot() {
+    }
+
+    /**
+     * Called by each of stepParallel's deciding tasks before its critters decide, for boards that precompute the
+     * neighbors of a stripe; a task may only write the stripes it was given. Deciding on the calling thread
+     * prepares every stripe in one call
+     * @param first The first stripe of the task
+     * @param last The stripe after its last
+     */
+    void prepare(int first, int last) {
+    }
+
+    /**
+     * Groups the slots by stripe into byStripe, with a counting sort
+     * @param target How many stripes to aim for
+     * @return The number of stripes
+     */
+    private int group(int target) {
+        int stripes = stripes(target);
+        if (byStripe.length < count)
+            byStripe = new int[order.length];
+        if (stripeStart.length < stripes + 1)
+            stripeStart = new int[stripes + 1];
+        Arrays.fill(stripeStart, 0, stripes + 1, 0);
+
+        for (int slot = 0; slot < count; slot++)
+            stripeStart[stripeOf(cellOf[slot]) + 1]++;
+        for (int i = 0; i < stripes; i++)
+            stripeStart[i + 1] += stripeStart[i];
+        for (int slot = 0; slot < count; slot++)
+            byStripe[stripeStart[stripeOf(cellOf[slot])]++] = slot;
+        for (int i = stripes; i > 0; i--) // Each start was advanced to the next stripe's; shift them back
+            stripeStart[i] = stripeStart[i - 1];
+        stripeStart[0] = 0;
+        return stripes;
+    }
+
+    /**
+     * Splits the board into the stripes stepParallel decides as separate tasks; by default bands of whole rows
+     * @param target How many stripes to aim for
+     * @return The number of stripes
+     */
+    int stripes(int target) {
+        stripeRows = Math.max(1, (height + target - 1) / target);
+        return (height + stripeRows - 1) / stripeRows;
+    }
+
+    /**
+     * @param cell A cell index
+     * @return The stripe holding the cell, below the count the last call to stripes returned
+     */
+    int stripeOf(int cell) {
+        return cell / width / stripeRows;
+    }
+
+    /**
+     * Decides critters' actions into actionOf without applying them
+     * @param slots Holds the slots to decide
+     * @param from The index of the first slot in slots
+     * @param to The index after the last
+     * @param view A view for the calling thread
+     * @param random The generator installed on the calling thread
+     */
+    private void decideAll(int[] slots, int from, int to, CritterInfoView view, CounterRandom random) {
+        CritterRandom previous = CritterRandom.current();
+        CritterRandom.install(random);
+        try {
+            for (int i = from; i < to; i++) {
+                int slot = slots[i];
+                view.point(slot);
+                actionOf[slot] = (byte) decide(slot, view, random).ordinal();
+            }
+        } finally {
+            CritterRandom.install(previous);
+        }
+    }
+
+    /**
+     * Decides a range of stripes, splitting it in half until a task holds a single stripe or few critters
+     */
+    @SuppressWarnings("serial") // Never serialized
+    private final class Decide extends RecursiveAction {
+        private final int first;
+        private final int last; // Exclusive
+
+        private Decide(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1 && stripeStart[last] - stripeStart[first] > GRAIN) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new Decide(first, middle), new Decide(middle, last));
+            } else {
+                prepare(first, last);
+                decideAll(byStripe, stripeStart[first], stripeStart[last], new CritterInfoView(World.this),
+                        new CounterRandom(critterSeed));
+            }
+        }
+    }
+
+    /**
+     * Reshuffles the turn order for a new tick
+     */
+    final void shuffle() {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+    /**
+     * Asks a critter for its move
+     * @param slot The critter's slot
+     * @param info Its surroundings this turn
+     * @param random The generator installed on the calling thread, keyed here to this tick and the critter's slot
+     * @return The Action it chose
+     */
+    private Critter.Action decide(int slot, CritterInfo info, CounterRandom random) {
+        random.key(tick, slot);
+        Critter critter = critters[slot];
+        return critter != null ? critter.getMove(info) : colonies[speciesOf[slot]].getMove(handleOf[slot], info);
+    }
+
+    /**
+     * Carries out a critter's chosen action under the simulator's rules
+     * @param slot The acting critter
+     * @param action The Action it chose
+     */
+    final void apply(int slot, Critter.Action action) {
+        int dir = facing[slot];
+        switch (action) {
+            case LEFT -> facing[slot] = LEFT_OF[dir];
+            case RIGHT -> facing[slot] = RIGHT_OF[dir];
+            case HOP -> {
+                int from = cellOf[slot];
+                int target = cellToward(from, dir);
+                if (target != NONE && occupant(target) == NONE) {
+                    move(slot, from, target);
+                    cellOf[slot] = target;
+                }
+            }
+            case INFECT -> {
+                int target = cellToward(cellOf[slot], dir);
+                int victim = target == NONE ? NONE : occupant(target);
+                if (victim != NONE && speciesOf[victim] != speciesOf[slot]) {
+                    int from = speciesOf[victim];
+                    populations[from]--;
+                    populations[speciesOf[slot]]++;
+                    if (colonies[from] != null)
+                        colonies[from].remove(handleOf[victim]);
+                    speciesOf[victim] = speciesOf[slot];
+                    converted(victim, from);
+                    create(victim, speciesOf[slot]);
+                    convertedAt[victim] = tick;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new critter of a species in a slot, as an object or as a colony handle
+     * @param slot The slot to fill
+     * @param speciesId A species id from addSpecies or addColony
+     */
+    private void create(int slot, int speciesId) {
+        CritterColony colony = colonies[speciesId];
+        if (colony == null) {
+            critters[slot] = species.get(speciesId).get();
+        } else {
+            critters[slot] = null;
+            handleOf[slot] = colony.add();
+        }
+    }
+
+    /**
+     * Returns the cell adjacent to another cell
+     * @param cell A cell index
+     * @param dir A Direction ordinal
+     * @return The adjacent cell index, or NONE if it is off the board
+     */
+    final int cellToward(int cell, int dir) {
+        int x = cell % width + DX[dir];
+        int y = cell / width + DY[dir];
+        return x < 0 || y < 0 || x >= width || y >= height ? NONE : y * width + x;
+    }
+
+    /**
+     * Reads a critter's four neighbors, for CritterInfoView
+     * @param slot The critter's slot
+     * @return The Neighborhood code of its neighbors
+     */
+    int neighbors(int slot) {
+        int dir = facing[slot];
+        return neighbor(slot, dir).ordinal() << Neighborhood.FRONT_SHIFT
+                | neighbor(slot, LEFT_OF[dir]).ordinal() << Neighborhood.LEFT_SHIFT
+                | neighbor(slot, RIGHT_OF[dir]).ordinal() << Neighborhood.RIGHT_SHIFT
+                | neighbor(slot, BACK_OF[dir]).ordinal() << Neighborhood.BACK_SHIFT;
+    }
+
+    private Critter.Neighbor neighbor(int slot, int dir) {
+        int target = cellToward(cellOf[slot], dir);
+        if (target == NONE)
+            return Critter.Neighbor.WALL;
+        int other = occupant(target);
+        if (other == NONE)
+            return Critter.Neighbor.EMPTY;
+        return speciesOf[other] == speciesOf[slot] ? Critter.Neighbor.SAME : Critter.Neighbor.OTHER;
+    }
+
+    /**
+     * Reads the facings of a critter and its neighbors, for CritterInfoView
+     * @param slot The critter's slot
+     * @return The facings, packed by Neighborhood.packFacings; neighbors that are not critters read as 0
+     */
+    final int neighborFacings(int slot) {
+        int dir = facing[slot];
+        return Neighborhood.packFacings(dir, neighborFacing(slot, dir), neighborFacing(slot, RIGHT_OF[dir]),
+                neighborFacing(slot, BACK_OF[dir]), neighborFacing(slot, LEFT_OF[dir]));
+    }
+
+    private int neighborFacing(int slot, int dir) {
+        int target = cellToward(cellOf[slot], dir);
+        int other = target == NONE ? NONE : occupant(target);
+        return other == NONE ? 0 : facing[other];
+    }
+
+    /**
+     * @param speciesId A species id from addSpecies or addColony
+     * @return The number of living critters of that species
+     */
+    public int population(int speciesId) {
+        return populations[speciesId];
+    }
+
+    /**
+     * @param slot A critter's slot, 0 through count - 1
+     * @return The board cell it occupies, y * width + x
+     */
+    public int cell(int slot) {
+        return cellOf[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return The Direction ordinal it faces
+     */
+    public int facing(int slot) {
+        return facing[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return Its species id
+     */
+    public int species(int slot) {
+        return speciesOf[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return The Action ordinal it took in the last tick, or -1 if it has not moved yet or was infected before its
+     *         turn came
+     */
+    public int action(int slot) {
+        return actionOf[slot];
+    }
+
+    /**
+     * @param slot A critter's slot
+     * @return Its state packed into an int: an EricState word for EricA critters, whether objects or in an
+     *         EricStore, and the colony's state for other colony species; 0 for other critters
+     */
+    public int state(int slot) {
+        Critter critter = critters[slot];
+        if (critter == null)
+            return colonies[speciesOf[slot]].state(handleOf[slot]);
+        return critter instanceof EricA eric ? eric.pack() : 0;
+    }
+
+    /**
+     * @return The number of species added
+     */
+    public int speciesCount() {
+        return species.size();
+    }
+
+    /**
+     * @return The number of ticks stepped so far
+     */
+    public int tick() {
+        return tick;
+    }
+
+    /**
+     * @return The total number of critters on the board
+     */
+    public int count() {
+        return count;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    private static byte ord(Critter.Direction dir) {
+        return (byte) dir.ordinal();
+    }
+}
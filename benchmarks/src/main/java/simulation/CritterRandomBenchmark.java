@@ -0,0 +1,37 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the random draws of one migrating EricA turn, a 25% turn check and a left/right coin flip: a whole
+ * nextLong for each, as migrate used to draw them, versus bits dealt from CritterRandom's reservoir
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CritterRandomBenchmark {
+    private final CritterRandom random = CritterRandom.seeded(1);
+
+    @Benchmark
+    public int wholeDraws() {
+        return random.nextDouble() <= 0.25 ? (random.nextLong() < 0 ? 1 : -1) : 0;
+    }
+
+    @Benchmark
+    public int reservoir() {
+        return random.chance(0.25) ? (random.nextBoolean() ? 1 : -1) : 0;
+    }
+}
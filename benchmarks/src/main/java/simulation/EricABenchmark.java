@@ -0,0 +1,58 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-turn cost of EricA.getMove. One critter is kept per fixture and all of them are driven every invocation,
+ * so over the warmup the population moves through the CLUMP, FIND_OTHERS, GROUP and MIGRATE states the way a
+ * real match does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EricABenchmark {
+    private static final int FIXTURES = 324; // 3^4 neighbor permutations * 4 facings
+
+    private final FixtureInfo[] fixtures = FixtureInfo.all();
+    private EricA[] critters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        critters = new EricA[fixtures.length];
+        for (int i = 0; i < critters.length; i++) {
+            critters[i] = new EricA();
+            critters[i].getMove(fixtures[i]); // Past justBorn, so getColor takes its real path
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void getMove(Blackhole bh) {
+        for (int i = 0; i < fixtures.length; i++)
+            bh.consume(critters[i].getMove(fixtures[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void getColor(Blackhole bh) {
+        for (EricA critter : critters)
+            bh.consume(critter.getColor());
+    }
+}
@@ -0,0 +1,10 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * EricABenchmark with getMove running through EricDecisionTable
+ */
+@Fork(value = 2, jvmArgsAppend = "-Deric.compiled=true")
+public class EricACompiledBenchmark extends EricABenchmark {
+}
@@ -0,0 +1,63 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-turn cost of an EricStore colony moved one critter at a time through CritterInfo versus in one
+ * getMoves batch over packed inputs. Both run with -Deric.compiled=true so they make the same decisions, and with
+ * jdk.incubator.vector so getMoves uses VectorThreatKernel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Deric.compiled=true", "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Thread)
+public class EricStoreBenchmark {
+    private static final int FIXTURES = 324; // 3^4 neighbor permutations * 4 facings
+
+    private final FixtureInfo[] fixtures = FixtureInfo.all();
+    private final byte[] codes = new byte[FIXTURES];
+    private final int[] facings = new int[FIXTURES];
+    private final int[] handles = new int[FIXTURES];
+    private final byte[] actions = new byte[FIXTURES];
+    private EricStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new EricStore();
+        for (int i = 0; i < FIXTURES; i++) {
+            codes[i] = (byte) Neighborhood.pack(fixtures[i]);
+            facings[i] = Neighborhood.packFacings(fixtures[i]);
+            handles[i] = store.add();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void getMove(Blackhole bh) {
+        for (int i = 0; i < FIXTURES; i++)
+            bh.consume(store.getMove(handles[i], fixtures[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public byte[] getMoves() {
+        store.getMoves(handles, codes, facings, actions, FIXTURES);
+        return actions;
+    }
+}
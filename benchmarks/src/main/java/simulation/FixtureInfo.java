@@ -0,0 +1,88 @@
+package simulation;
+
+/**
+ * Immutable CritterInfo for benchmarks, covering every arrangement of EMPTY/SAME/OTHER neighbors (3^4) for
+ * every facing
+ */
+final class FixtureInfo implements CritterInfo {
+    private static final Critter.Neighbor[] TYPES = {
+            Critter.Neighbor.EMPTY, Critter.Neighbor.SAME, Critter.Neighbor.OTHER };
+    private static final Critter.Direction[] DIRECTIONS = Critter.Direction.values();
+
+    private final Critter.Neighbor front, back, left, right;
+    private final Critter.Direction direction;
+
+    private FixtureInfo(Critter.Neighbor front, Critter.Neighbor back, Critter.Neighbor left, Critter.Neighbor right,
+                        Critter.Direction direction) {
+        this.front = front;
+        this.back = back;
+        this.left = left;
+        this.right = right;
+        this.direction = direction;
+    }
+
+    /**
+     * @return All 3^4 neighbor permutations for each of the four facings
+     */
+    static FixtureInfo[] all() {
+        FixtureInfo[] fixtures = new FixtureInfo[TYPES.length * TYPES.length * TYPES.length * TYPES.length * 4];
+        int i = 0;
+        for (Critter.Direction direction : DIRECTIONS)
+            for (Critter.Neighbor front : TYPES)
+                for (Critter.Neighbor back : TYPES)
+                    for (Critter.Neighbor left : TYPES)
+                        for (Critter.Neighbor right : TYPES)
+                            fixtures[i++] = new FixtureInfo(front, back, left, right, direction);
+        return fixtures;
+    }
+
+    // Neighboring critters face the same way as this one, which keeps directionOf deterministic
+    private Critter.Direction facingOf(Critter.Neighbor neighbor) {
+        return neighbor == Critter.Neighbor.EMPTY ? null : direction;
+    }
+
+    @Override
+    public Critter.Neighbor getFront() {
+        return front;
+    }
+
+    @Override
+    public Critter.Neighbor getBack() {
+        return back;
+    }
+
+    @Override
+    public Critter.Neighbor getLeft() {
+        return left;
+    }
+
+    @Override
+    public Critter.Neighbor getRight() {
+        return right;
+    }
+
+    @Override
+    public Critter.Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public Critter.Direction getFrontDirection() {
+        return facingOf(front);
+    }
+
+    @Override
+    public Critter.Direction getBackDirection() {
+        return facingOf(back);
+    }
+
+    @Override
+    public Critter.Direction getLeftDirection() {
+        return facingOf(left);
+    }
+
+    @Override
+    public Critter.Direction getRightDirection() {
+        return facingOf(right);
+    }
+}
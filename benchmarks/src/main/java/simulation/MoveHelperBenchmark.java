@@ -0,0 +1,110 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the MoveHelper methods EricA uses every turn. Each invocation sweeps all fixtures so branch
+ * history covers every neighbor arrangement and facing; scores are reported per single call. Run with -prof gc
+ * to compare allocation: closestShift and closestShiftPacked should report a gc.alloc.rate.norm of zero.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoveHelperBenchmark {
+    private static final int FIXTURES = 324; // 3^4 neighbor permutations * 4 facings
+    private static final int GRID_SHIFTS = 4 * 5; // 4 GridDirections * shifts of -2 through 2
+
+    private final FixtureInfo[] fixtures = FixtureInfo.all();
+    private final Critter.Direction[] directions = Critter.Direction.values();
+    private final MoveHelper.GridDirection[] gridDirections = MoveHelper.GridDirection.values();
+    private final int[] codes = new int[FIXTURES];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < FIXTURES; i++)
+            codes[i] = Neighborhood.pack(fixtures[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void closestNeighbor(Blackhole bh) {
+        for (FixtureInfo info : fixtures)
+            bh.consume(MoveHelper.closestNeighbor(info, Critter.Neighbor.OTHER));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void closestShift(Blackhole bh) {
+        for (FixtureInfo info : fixtures)
+            bh.consume(MoveHelper.closestShift(info, Critter.Neighbor.OTHER));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES)
+    public void closestShiftPacked(Blackhole bh) {
+        for (int code : codes)
+            bh.consume(MoveHelper.closestShift(code, Critter.Neighbor.OTHER));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES * 4)
+    public void optimalTurn(Blackhole bh) {
+        for (FixtureInfo info : fixtures)
+            for (Critter.Direction target : directions)
+                bh.consume(MoveHelper.optimalTurn(info, target));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES * 4)
+    public void optimalTurnBy(Blackhole bh) {
+        for (FixtureInfo info : fixtures)
+            for (int shift = 0; shift < 4; shift++)
+                bh.consume(MoveHelper.optimalTurnBy(info, shift));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURES * 4)
+    public void directionOf(Blackhole bh) {
+        for (FixtureInfo info : fixtures)
+            for (Critter.Direction target : directions)
+                bh.consume(MoveHelper.directionOf(info, target));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRID_SHIFTS)
+    public void shiftDir(Blackhole bh) {
+        for (MoveHelper.GridDirection dir : gridDirections)
+            for (int shift = -2; shift <= 2; shift++)
+                bh.consume(MoveHelper.shiftDir(dir, shift));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void toGrid(Blackhole bh) {
+        for (Critter.Direction dir : directions)
+            bh.consume(MoveHelper.toGrid(dir));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public void toCardinal(Blackhole bh) {
+        for (MoveHelper.GridDirection dir : gridDirections)
+            bh.consume(MoveHelper.toCardinal(dir));
+    }
+}
@@ -0,0 +1,58 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-critter cost of ThreatKernel's scalar table lookup versus the Vector API kernel over a large batch of random
+ * neighborhood codes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+@State(Scope.Thread)
+public class ThreatKernelBenchmark {
+    private static final int CRITTERS = 4096;
+
+    private final byte[] codes = new byte[CRITTERS];
+    private final byte[] out = new byte[CRITTERS];
+    private final ThreatKernel scalar = ThreatKernel.scalar();
+    private final ThreatKernel vector = ThreatKernel.best();
+
+    @Setup
+    public void setUp() {
+        if (vector == scalar)
+            throw new IllegalStateException("VectorThreatKernel did not load");
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < CRITTERS; i++)
+            codes[i] = (byte) random.nextInt(Neighborhood.CODES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CRITTERS)
+    public byte[] scalar() {
+        scalar.triage(codes, out, CRITTERS);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CRITTERS)
+    public byte[] vector() {
+        vector.triage(codes, out, CRITTERS);
+        return out;
+    }
+}
@@ -0,0 +1,63 @@
+package simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one tick of an EricA vs. FlyTrap match on each World backend, with "parallel" stepping a CritterWorld
+ * with stepParallel on the common pool. A fresh match is spawned for every iteration, with a fifth of the board's
+ * cells filled, so every iteration measures the same stretch of play.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class WorldBenchmark {
+    @Param({ "dense", "parallel", "bitboard", "chunked", "sparse" })
+    public String backend;
+
+    @Param({ "200", "1000" })
+    public int side;
+
+    private World world;
+    private ForkJoinPool pool; // Set for backends stepped with stepParallel
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = switch (backend) {
+            case "dense", "parallel" -> new CritterWorld(side, side, 42);
+            case "bitboard" -> new BitboardWorld(side, side, 42);
+            case "chunked" -> new ChunkedWorld(side, side, 42);
+            case "sparse" -> new SparseWorld(side, side, 42);
+            default -> throw new IllegalArgumentException("Unknown backend " + backend);
+        };
+        pool = backend.equals("parallel") ? ForkJoinPool.commonPool() : null;
+        int perSpecies = side * side / 10;
+        world.spawn(world.addColony(EricStore::new), perSpecies);
+        world.spawn(world.addSpecies(FlyTrap::new), perSpecies);
+    }
+
+    @Benchmark
+    public World step() {
+        if (pool != null)
+            world.stepParallel(pool);
+        else
+            world.step();
+        return world;
+    }
+}
@@ -0,0 +1,51 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ThreatKernel over the incubating Vector API: each neighbor is masked out of a whole vector of neighborhood codes
+ * at once and the threat rules become lane-wise comparisons and blends, 32 or 64 critters per instruction on AVX2
+ * or AVX-512. Lives outside the root sources because it needs --add-modules jdk.incubator.vector to compile and run;
+ * ThreatKernel loads it by name.
+ */
+final class VectorThreatKernel extends ThreatKernel {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private static final byte EMPTY = (byte) Critter.Neighbor.EMPTY.ordinal();
+    private static final byte OTHER = (byte) Critter.Neighbor.OTHER.ordinal();
+    private static final byte INFECT = (byte) Critter.Action.INFECT.ordinal();
+    private static final byte HOP = (byte) Critter.Action.HOP.ordinal();
+    private static final byte LEFT = (byte) Critter.Action.LEFT.ordinal();
+    private static final byte RIGHT = (byte) Critter.Action.RIGHT.ordinal();
+
+    @Override
+    void triage(byte[] codes, byte[] out, int n) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(n); i < bound; i += SPECIES.length()) {
+            ByteVector code = ByteVector.fromArray(SPECIES, codes, i);
+            ByteVector front = code.lanewise(VectorOperators.LSHR, Neighborhood.FRONT_SHIFT).and((byte) 3);
+            ByteVector left = code.lanewise(VectorOperators.LSHR, Neighborhood.LEFT_SHIFT).and((byte) 3);
+            ByteVector right = code.lanewise(VectorOperators.LSHR, Neighborhood.RIGHT_SHIFT).and((byte) 3);
+            ByteVector back = code.lanewise(VectorOperators.LSHR, Neighborhood.BACK_SHIFT).and((byte) 3);
+
+            VectorMask<Byte> leftOther = left.eq(OTHER);
+            VectorMask<Byte> rightOther = right.eq(OTHER);
+
+            // Lowest priority first, so each higher rule overwrites the lanes it settles
+            ByteVector result = ByteVector.broadcast(SPECIES, SCALAR)
+                    .blend(LEFT, leftOther.andNot(rightOther))
+                    .blend(RIGHT, rightOther.andNot(leftOther))
+                    .blend(HOP, back.eq(OTHER).and(front.eq(EMPTY)))
+                    .blend(INFECT, front.eq(OTHER));
+            result.intoArray(out, i);
+        }
+        for (; i < n; i++)
+            out[i] = triage(codes[i] & 0xFF);
+    }
+
+    @Override
+    String name() {
+        return "vector " + SPECIES.length() + " lanes";
+    }
+}